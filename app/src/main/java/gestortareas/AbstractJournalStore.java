@@ -0,0 +1,154 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Base de los almacenamientos con diario de cambios (JournaledTaskStore y
+ * PartitionedTaskStore).
+ *
+ * Cada cambio se codifica en el TaskJournal en el hilo que lo hace y, al
+ * terminar la operación o el lote, changed() decide si basta con escribir el
+ * diario o hay que compactar. Con una ventana de escritura mayor que cero,
+ * writePending() se ejecuta en un GroupCommitWriter, que también guarda lo
+ * pendiente si la aplicación se cierra sin llamar a close().
+ */
+abstract class AbstractJournalStore implements TaskStore {
+    protected final TaskJournal journal;
+    // Escritura en segundo plano (null en modo síncrono)
+    protected final GroupCommitWriter writer;
+    private final Thread shutdownHook;
+    // Serializa las escrituras en disco entre el hilo de escritura y el de la lista
+    protected final Object diskLock = new Object();
+    // Lote en curso: los registros se acumulan en memoria hasta endBatch()
+    private int batchDepth;
+    private boolean batchChanged;
+    private volatile Consumer<String> errorListener = message -> {
+    };
+    protected final AtomicLong bytesWritten = new AtomicLong();
+
+    protected AbstractJournalStore(String journalFile, long flushWindowMillis) {
+        this.journal = new TaskJournal(journalFile);
+        if (flushWindowMillis > 0) {
+            writer = new GroupCommitWriter("task-store-writer", flushWindowMillis, this::writePending);
+            // Guardar lo pendiente aunque la aplicación se cierre sin llamar a close()
+            shutdownHook = new Thread(writer::close, "task-store-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        } else {
+            writer = null;
+            shutdownHook = null;
+        }
+    }
+
+    // Hay cambios registrados fuera de un lote (o un lote que terminó): en el
+    // hilo de la lista, que es el único que la modifica
+    protected abstract void changed();
+
+    // Escribir los registros pendientes del diario; en modo asíncrono se
+    // ejecuta en el hilo de escritura y no puede tocar la lista
+    protected abstract void writePending();
+
+    // Cambio ya registrado en el diario (task es null al limpiar las completadas)
+    protected void changeLogged(Task task) {
+    }
+
+    // Sin escrituras (por ejemplo, tras un error al cargar)
+    protected boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        logChange(task, () -> journal.appendAdd(task));
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+        logChange(task, () -> journal.appendUpdate(task));
+    }
+
+    @Override
+    public void taskStatusChanged(Task task) {
+        if (task.isCompleted()) {
+            logChange(task, () -> journal.appendCompleted(task.getId()));
+        } else {
+            logChange(task, () -> journal.appendPending(task.getId()));
+        }
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        logChange(task, () -> journal.appendRemove(task.getId()));
+    }
+
+    @Override
+    public void completedTasksCleared() {
+        logChange(null, journal::appendClearCompleted);
+    }
+
+    @Override
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    @Override
+    public void endBatch() {
+        if (--batchDepth > 0 || !batchChanged) {
+            return;
+        }
+        batchChanged = false;
+        changed();
+    }
+
+    @Override
+    public void setErrorListener(Consumer<String> listener) {
+        errorListener = listener;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // La JVM ya se está cerrando: el gancho se ejecuta igualmente
+        }
+    }
+
+    protected void reportError(String message) {
+        System.err.println(message);
+        errorListener.accept(message);
+    }
+
+    // Registrar un cambio en el diario; se escribe ahora o en el próximo grupo
+    private void logChange(Task task, JournalWrite write) {
+        if (isReadOnly()) {
+            return;
+        }
+        try {
+            write.run();
+        } catch (IOException e) {
+            reportError("Error al registrar el cambio: " + e.getMessage());
+            return;
+        }
+        changeLogged(task);
+        if (batchDepth > 0) {
+            batchChanged = true;
+        } else {
+            changed();
+        }
+    }
+
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+}
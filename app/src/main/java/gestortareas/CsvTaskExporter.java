@@ -0,0 +1,72 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Exportación a CSV (RFC 4180) en una sola pasada: una fila por tarea con
+ * id, título, descripción, fecha límite, fecha de creación (ISO-8601) y
+ * estado. Los campos con comas, comillas o saltos de línea van entre comillas.
+ */
+public class CsvTaskExporter implements TaskExporter {
+    public static final String HEADER = "id,titulo,descripcion,fecha_limite,fecha_creacion,completada";
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public void export(List<Task> tasks, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+        for (Task task : tasks) {
+            out.write(Long.toString(task.getId()));
+            out.write(',');
+            writeField(out, task.getTitle());
+            out.write(',');
+            writeField(out, task.getDescription());
+            out.write(',');
+            if (task.getDueDate() != null) {
+                out.write(task.getDueDate().toString());
+            }
+            out.write(',');
+            out.write(task.getCreatedDate().toString());
+            out.write(',');
+            out.write(task.isCompleted() ? "true" : "false");
+            out.write("\r\n");
+        }
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package gestortareas;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Caché LRU de las descripciones leídas del archivo (DescriptionSection),
+ * limitada por la memoria aproximada que ocupan los textos.
+ *
+ * Al superar el límite se descartan las menos usadas recientemente; con un
+ * límite de 0 no se guarda nada y cada acceso lee el archivo.
+ */
+final class DescriptionCache {
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    // Memoria de cada entrada además de los caracteres (String, array y nodo del mapa)
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long maxBytes;
+    // Orden de acceso: la primera entrada es la usada hace más tiempo
+    private final LinkedHashMap<DescriptionSection.Ref, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    DescriptionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized String get(DescriptionSection.Ref ref) {
+        return entries.get(ref);
+    }
+
+    synchronized void put(DescriptionSection.Ref ref, String value) {
+        long size = sizeOf(value);
+        if (size > maxBytes) {
+            return;
+        }
+        String previous = entries.put(ref, value);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+        }
+        usedBytes += size;
+        Iterator<String> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes) {
+            usedBytes -= sizeOf(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    // Dos bytes por carácter: el peor caso de String
+    private static long sizeOf(String value) {
+        return ENTRY_OVERHEAD + 2L * value.length();
+    }
+}
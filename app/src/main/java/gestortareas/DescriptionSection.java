@@ -0,0 +1,123 @@
+package gestortareas;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sección de descripciones de una instantánea (formato 3 de TaskCodec).
+ *
+ * Al cargar solo se leen los registros de las tareas; cada descripción queda
+ * como una referencia (Ref) a su posición en el archivo y se lee al pedirla,
+ * pasando por la DescriptionCache del almacenamiento.
+ *
+ * El archivo sigue abierto mientras alguna tarea apunte a él, aunque una
+ * instantánea nueva lo haya reemplazado (el sistema conserva el contenido
+ * del archivo abierto); se cierra cuando ya no quedan referencias.
+ */
+final class DescriptionSection {
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final FileChannel channel;
+    private final DescriptionCache cache;
+    private final Cleaner.Cleanable cleanable;
+
+    DescriptionSection(FileChannel channel, DescriptionCache cache) {
+        this.channel = channel;
+        this.cache = cache;
+        // La acción de cierre no puede hacer referencia a la sección
+        cleanable = CLEANER.register(this, () -> closeQuietly(channel));
+    }
+
+    Ref ref(long offset, int length) {
+        return new Ref(this, offset, length);
+    }
+
+    // Cerrar el archivo si ninguna tarea llegó a apuntar a la sección
+    void close() {
+        cleanable.clean();
+    }
+
+    private byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        // Un hilo interrumpido cerraría el canal para todas las tareas: la
+        // interrupción se deja a un lado durante la lectura
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Descripción incompleta en el archivo de tareas");
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el archivo de tareas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Descripción guardada en la sección: posición y longitud en bytes (UTF-8).
+     * Las copias de una tarea (withCompleted, withId) comparten la misma Ref.
+     */
+    static final class Ref {
+        private final DescriptionSection section;
+        private final long offset;
+        private final int length;
+
+        private Ref(DescriptionSection section, long offset, int length) {
+            this.section = section;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        // Texto de la descripción, desde la caché o leído del archivo
+        String load() {
+            String value = section.cache.get(this);
+            if (value == null) {
+                try {
+                    value = new String(section.read(offset, length), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo leer la descripción de la tarea", e);
+                }
+                section.cache.put(this, value);
+            }
+            return value;
+        }
+
+        // Texto de la descripción sin guardarlo en la caché (si ya está, se usa)
+        String read() {
+            String value = section.cache.get(this);
+            if (value != null) {
+                return value;
+            }
+            try {
+                return new String(section.read(offset, length), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer la descripción de la tarea", e);
+            }
+        }
+
+        // Bytes tal como están en el archivo, para copiarlos a otra instantánea sin decodificarlos
+        byte[] readBytes() throws IOException {
+            return section.read(offset, length);
+        }
+
+        int length() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package gestortareas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Índice de las tareas pendientes con fecha límite, ordenado por día de
+ * vencimiento (días desde epoch). Responde a "vencidas", "vencen en los
+ * próximos N días" y rangos de fechas con un recorrido del rango del mapa,
+ * sin mirar el resto de tareas.
+ *
+ * El número de vencidas se mantiene con cada cambio. Cuando cambia la fecha
+ * solo se suman los días que acaban de pasar; quien usa el índice llama a
+ * refreshToday() con acceso exclusivo antes de consultar, para que las
+ * consultas no modifiquen nada y puedan ejecutarse a la vez.
+ *
+ * Cada día guarda los ids de sus tareas en un conjunto de longs, así que
+ * quitar una tarea no depende de cuántas vencen el mismo día; las tareas se
+ * obtienen del gestor por id al consultar, en orden de id dentro del día.
+ */
+public class DueDateIndex {
+    // Ids de las tareas pendientes por día de vencimiento
+    private final TreeMap<Long, IdSet> pendingByDueDay = new TreeMap<>();
+    // Tarea actual con un id (la del gestor)
+    private final LongFunction<Task> lookup;
+    private volatile long today = LocalDate.now().toEpochDay();
+    private int overdue;
+
+    public DueDateIndex(LongFunction<Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    // Agregar una tarea (solo se indexan las pendientes con fecha límite)
+    public void add(Task task) {
+        if (!task.isCompleted() && task.hasDueDate()) {
+            add(task.getId(), task.getDueEpochDay());
+        }
+    }
+
+    // Agregar una tarea pendiente por su id y su fecha límite
+    public void add(long id, long dueDay) {
+        if (pendingByDueDay.computeIfAbsent(dueDay, day -> new IdSet()).add(id) && dueDay < today) {
+            overdue++;
+        }
+    }
+
+    // Quitar una tarea con el estado y la fecha con los que se agregó
+    public void remove(Task task) {
+        if (task.isCompleted() || !task.hasDueDate()) {
+            return;
+        }
+        long dueDay = task.getDueEpochDay();
+        IdSet bucket = pendingByDueDay.get(dueDay);
+        if (bucket == null || !bucket.remove(task.getId())) {
+            return;
+        }
+        if (bucket.size() == 0) {
+            pendingByDueDay.remove(dueDay);
+        }
+        if (dueDay < today) {
+            overdue--;
+        }
+    }
+
+    public void clear() {
+        pendingByDueDay.clear();
+        overdue = 0;
+    }
+
+    // Tareas pendientes cuya fecha límite ya pasó
+    public List<Task> getOverdue() {
+        return collect(pendingByDueDay.headMap(today, false), overdue);
+    }
+
+    public int getOverdueCount() {
+        return overdue;
+    }
+
+    // Tareas pendientes que vencen desde hoy hasta dentro de "days" días
+    // (ninguna si "days" es negativo)
+    public List<Task> getDueWithin(int days) {
+        if (days < 0) {
+            return new ArrayList<>();
+        }
+        return collect(pendingByDueDay.subMap(today, true, today + days, true), 16);
+    }
+
+    // Tareas pendientes que vencen entre dos fechas (ambas incluidas; null =
+    // sin límite por ese lado). Un rango invertido no contiene ninguna.
+    public List<Task> getDueBetween(LocalDate from, LocalDate to) {
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        if (fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        return collect(pendingByDueDay.subMap(fromDay, true, toDay, true), 16);
+    }
+
+    // Día actual del índice (días desde epoch): las vencidas son las anteriores
+    public long getToday() {
+        return today;
+    }
+
+    // Número de tareas pendientes que vencen entre dos días (ambos incluidos)
+    public int countBetween(long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        if (fromDay == Long.MIN_VALUE && toDay == today - 1) {
+            return overdue;
+        }
+        return count(pendingByDueDay.subMap(fromDay, true, toDay, true));
+    }
+
+    // Recorrido de las tareas pendientes que vencen entre dos días, por fecha
+    // límite y, dentro de cada día, por id (de mayor a menor si "descending").
+    // Cada día se copia y ordena al llegar a él, sin copiar el rango entero.
+    public Iterator<Task> iterate(long fromDay, long toDay, boolean descending) {
+        if (fromDay > toDay) {
+            return Collections.emptyIterator();
+        }
+        NavigableMap<Long, IdSet> range = pendingByDueDay.subMap(fromDay, true, toDay, true);
+        Iterator<IdSet> buckets = (descending ? range.descendingMap() : range).values().iterator();
+        return new Iterator<Task>() {
+            private long[] bucket = new long[0];
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                while (position == bucket.length && buckets.hasNext()) {
+                    bucket = buckets.next().sortedIds();
+                    position = 0;
+                }
+                return position < bucket.length;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long id = descending ? bucket[bucket.length - 1 - position++] : bucket[position++];
+                return lookup.apply(id);
+            }
+        };
+    }
+
+    // Si cambió la fecha desde la última actualización
+    public boolean isOutdated() {
+        return LocalDate.now().toEpochDay() != today;
+    }
+
+    // Cambio de día: las tareas que vencían entre el día anterior y hoy pasan
+    // a estar vencidas (o dejan de estarlo si el reloj retrocede)
+    public void refreshToday() {
+        long now = LocalDate.now().toEpochDay();
+        if (now == today) {
+            return;
+        }
+        if (now > today) {
+            overdue += count(pendingByDueDay.subMap(today, true, now, false));
+        } else {
+            overdue -= count(pendingByDueDay.subMap(now, true, today, false));
+        }
+        today = now;
+    }
+
+    private List<Task> collect(Map<Long, IdSet> buckets, int expectedSize) {
+        List<Task> result = new ArrayList<>(expectedSize);
+        for (IdSet bucket : buckets.values()) {
+            for (long id : bucket.sortedIds()) {
+                result.add(lookup.apply(id));
+            }
+        }
+        return result;
+    }
+
+    private static int count(Map<Long, IdSet> buckets) {
+        int count = 0;
+        for (IdSet bucket : buckets.values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /**
+     * Conjunto de ids (siempre positivos) con direccionamiento abierto: alta
+     * y baja en tiempo constante sin objetos por elemento. El 0 marca las
+     * casillas libres.
+     */
+    private static final class IdSet {
+        private long[] slots = new long[4];
+        private int size;
+
+        boolean add(long id) {
+            if ((size + 1) * 4 > slots.length * 3) {
+                resize(slots.length * 2);
+            }
+            int slot = find(slots, id);
+            if (slots[slot] == id) {
+                return false;
+            }
+            slots[slot] = id;
+            size++;
+            return true;
+        }
+
+        // Baja con desplazamiento hacia atrás: los ids siguientes de la misma
+        // secuencia ocupan el hueco, así no hacen falta marcas de borrado
+        boolean remove(long id) {
+            int mask = slots.length - 1;
+            int slot = find(slots, id);
+            if (slots[slot] != id) {
+                return false;
+            }
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                long candidate = slots[next];
+                if (candidate == 0) {
+                    break;
+                }
+                int home = hash(candidate) & mask;
+                // El candidato puede ocupar el hueco si su casilla ideal no
+                // está entre el hueco (excluido) y su posición actual
+                if (slot <= next ? home <= slot || home > next : home <= slot && home > next) {
+                    slots[slot] = candidate;
+                    slot = next;
+                }
+            }
+            slots[slot] = 0;
+            size--;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] sortedIds() {
+            long[] ids = new long[size];
+            int count = 0;
+            for (long id : slots) {
+                if (id != 0) {
+                    ids[count++] = id;
+                }
+            }
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        private void resize(int capacity) {
+            long[] previous = slots;
+            slots = new long[capacity];
+            for (long id : previous) {
+                if (id != 0) {
+                    slots[find(slots, id)] = id;
+                }
+            }
+        }
+
+        // Casilla del id, o la libre donde iría
+        private static int find(long[] slots, long id) {
+            int mask = slots.length - 1;
+            int slot = hash(id) & mask;
+            while (slots[slot] != 0 && slots[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
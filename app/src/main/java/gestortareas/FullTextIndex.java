@@ -0,0 +1,522 @@
+package gestortareas;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Índice invertido de las palabras del título y la descripción de las
+ * tareas, para la búsqueda por relevancia (ver TextSearch).
+ *
+ * Las palabras se separan por todo lo que no es letra ni dígito y se guardan
+ * en minúsculas y sin tildes ("Canción" y "cancion" son la misma); las
+ * vacías más frecuentes del español no se indexan. Cada palabra apunta a los
+ * documentos que la contienen con su frecuencia, y las del título cuentan el
+ * doble que las de la descripción.
+ *
+ * La puntuación es BM25: suma, por cada palabra buscada, su rareza (IDF) por
+ * una frecuencia saturada y corregida por la longitud del documento. Solo se
+ * recorren las listas de las palabras buscadas, y los mejores resultados se
+ * eligen con un montículo del tamaño del límite pedido.
+ *
+ * Como TitleIndex, se actualiza con cada alta, cambio y baja, las búsquedas
+ * no lo modifican y solo guarda los ids: las tareas se piden al gestor al
+ * filtrar los candidatos. Una baja solo marca el documento; las listas se
+ * limpian al renumerar cuando más de la mitad son huecos.
+ */
+public class FullTextIndex {
+    // Parámetros habituales de BM25: saturación de la frecuencia y peso de la longitud
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 2;
+    // Las palabras que solo coinciden por prefijo o con erratas puntúan menos
+    private static final float PREFIX_WEIGHT = 0.7f;
+    private static final float TYPO_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int TWO_TYPOS_LENGTH = 8;
+    // Palabras parecidas que se prueban como mucho por cada palabra buscada (las más frecuentes)
+    private static final int MAX_EXPANSIONS = 64;
+    // Las "palabras" más largas suelen ser enlaces o códigos: no se indexan
+    private static final int MAX_WORD_LENGTH = 40;
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "al", "como", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o", "para",
+            "por", "que", "se", "su", "sus", "un", "una", "y"));
+
+    // Minúscula sin tilde de cada carácter latino (hasta U+024F), sacada de su descomposición
+    private static final char[] FOLDED = new char[0x250];
+
+    static {
+        for (char c = 0; c < FOLDED.length; c++) {
+            FOLDED[c] = Normalizer.normalize(String.valueOf(Character.toLowerCase(c)), Normalizer.Form.NFD).charAt(0);
+        }
+    }
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator
+            .comparingDouble((Hit hit) -> hit.score)
+            .thenComparing(Comparator.comparingLong((Hit hit) -> hit.task.getId()).reversed());
+
+    // Ordenado por palabra para recorrer los prefijos y las palabras parecidas
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    // Número de documento de cada tarea, por id
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    // Por número de documento: el id de la tarea, sus palabras (null si se
+    // eliminó) y su longitud
+    private long[] ids = new long[16];
+    private String[][] words = new String[16][];
+    private int[] lengths = new int[16];
+    private int nextDoc;
+    private long totalLength;
+    // Tarea actual con un id (la del gestor)
+    private final LongFunction<Task> lookup;
+
+    public FullTextIndex(LongFunction<Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    // Indexar una tarea nueva
+    public void add(Task task) {
+        if (nextDoc == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            words = Arrays.copyOf(words, words.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+        }
+        int doc = nextDoc++;
+        ids[doc] = task.getId();
+        docIds.put(task.getId(), doc);
+        index(doc, task);
+    }
+
+    // Quitar una tarea del índice
+    public void remove(Task task) {
+        Integer doc = docIds.remove(task.getId());
+        if (doc == null) {
+            return;
+        }
+        unindex(doc);
+        compactIfSparse();
+    }
+
+    // Sustituir una tarea por su nueva versión; solo se vuelve a indexar si
+    // cambió el texto (no al marcarla como completada)
+    public void replace(Task previous, Task task) {
+        Integer doc = docIds.get(previous.getId());
+        if (doc == null) {
+            add(task);
+        } else if (!previous.hasSameText(task)) {
+            remove(previous);
+            add(task);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        docIds.clear();
+        ids = new long[16];
+        words = new String[16][];
+        lengths = new int[16];
+        nextDoc = 0;
+        totalLength = 0;
+    }
+
+    /**
+     * Las "limit" tareas que cumplen el filtro con mayor puntuación para el
+     * texto, de más a menos relevante (los empates, por id). Con prefixes,
+     * cada palabra encuentra también las que empiezan por ella; con
+     * typoTolerant, las que empiezan por la misma letra y están a una edición
+     * (dos en las palabras largas).
+     */
+    public List<Task> search(String text, int limit, boolean prefixes, boolean typoTolerant, Predicate<Task> filter) {
+        Set<String> queryWords = new LinkedHashSet<>(tokenize(text));
+        int count = docIds.size();
+        if (queryWords.isEmpty() || limit == 0 || count == 0) {
+            return new ArrayList<>();
+        }
+        // Denominador de BM25: frecuencia + K1 * (1 - B + B * longitud / longitud media)
+        float fixedNorm = K1 * (1 - B);
+        float lengthNorm = K1 * B / Math.max(1f, (float) totalLength / count);
+
+        // Las listas de cada palabra buscada; sus documentos vivos acotan el
+        // tamaño de las puntuaciones (ver DocScores)
+        List<Map<PostingList, Float>> wordExpansions = new ArrayList<>(queryWords.size());
+        long candidates = 0;
+        for (String word : queryWords) {
+            Map<PostingList, Float> expansions = expand(word, prefixes, typoTolerant);
+            wordExpansions.add(expansions);
+            for (PostingList list : expansions.keySet()) {
+                candidates += list.live;
+            }
+        }
+
+        // Puntuación total por documento; cada palabra buscada aporta la de su
+        // mejor coincidencia (la exacta o la más puntuada de las parecidas)
+        DocScores scores = new DocScores((int) Math.min(candidates, count), nextDoc);
+        for (Map<PostingList, Float> expansions : wordExpansions) {
+            if (expansions.size() == 1) {
+                // Una sola lista: se suma directamente
+                Map.Entry<PostingList, Float> entry = expansions.entrySet().iterator().next();
+                PostingList list = entry.getKey();
+                float weight = entry.getValue() * idf(list.live, count) * (K1 + 1);
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (words[doc] == null) {
+                        continue;
+                    }
+                    int frequency = list.frequencies[i];
+                    scores.values[scores.slot(doc)] +=
+                            weight * frequency / (frequency + fixedNorm + lengthNorm * lengths[doc]);
+                }
+                continue;
+            }
+            int wordCandidates = 0;
+            for (PostingList list : expansions.keySet()) {
+                wordCandidates += list.live;
+            }
+            DocScores wordScores = new DocScores(Math.min(wordCandidates, count), nextDoc);
+            for (Map.Entry<PostingList, Float> entry : expansions.entrySet()) {
+                PostingList list = entry.getKey();
+                float weight = entry.getValue() * idf(list.live, count) * (K1 + 1);
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (words[doc] == null) {
+                        continue;
+                    }
+                    int frequency = list.frequencies[i];
+                    float score = weight * frequency / (frequency + fixedNorm + lengthNorm * lengths[doc]);
+                    int slot = wordScores.slot(doc);
+                    if (score > wordScores.values[slot]) {
+                        wordScores.values[slot] = score;
+                    }
+                }
+            }
+            for (int slot = 0; slot < wordScores.values.length; slot++) {
+                int doc = wordScores.docAt(slot);
+                if (doc >= 0) {
+                    scores.values[scores.slot(doc)] += wordScores.values[slot];
+                }
+            }
+        }
+
+        // Los mejores con un montículo acotado: en la raíz, el peor de los elegidos
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+        for (int slot = 0; slot < scores.values.length; slot++) {
+            int doc = scores.docAt(slot);
+            if (doc < 0) {
+                continue;
+            }
+            long id = ids[doc];
+            float score = scores.values[slot];
+            if (best.size() == limit && !isBetter(score, id, best.peek())) {
+                continue;
+            }
+            Task task = lookup.apply(id);
+            if (task == null || !filter.test(task)) {
+                continue;
+            }
+            best.add(new Hit(task, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        Task[] results = new Task[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = best.poll().task;
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    // Palabras del texto en minúsculas y sin tildes, sin las vacías, en orden
+    static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letter = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start <= MAX_WORD_LENGTH) {
+                    String word = folded.substring(start, i);
+                    if (!STOP_WORDS.contains(word)) {
+                        result.add(word);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    // Minúsculas sin tildes ni diéresis (la ñ queda como n). Los caracteres
+    // latinos salen de la tabla; solo el resto del texto pasa por Normalizer.
+    private static String fold(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = text.charAt(i);
+            if (c >= FOLDED.length) {
+                return foldOther(text);
+            }
+            chars[i] = FOLDED[c];
+        }
+        return new String(chars);
+    }
+
+    private static String foldOther(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private void index(int doc, Task task) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = count(task.getTitle(), TITLE_WEIGHT, frequencies)
+                + count(task.scanDescription(), 1, frequencies);
+        String[] docWords = new String[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            PostingList list = postings.computeIfAbsent(entry.getKey(), PostingList::new);
+            list.add(doc, entry.getValue()[0]);
+            // Cada documento comparte la instancia de la palabra del diccionario
+            docWords[i++] = list.word;
+        }
+        words[doc] = docWords;
+        lengths[doc] = length;
+        totalLength += length;
+    }
+
+    private static int count(String text, int weight, Map<String, int[]> frequencies) {
+        List<String> textWords = tokenize(text);
+        for (String word : textWords) {
+            frequencies.computeIfAbsent(word, k -> new int[1])[0] += weight;
+        }
+        return textWords.size() * weight;
+    }
+
+    // Las listas conservan el documento hasta la próxima renumeración, pero
+    // deja de contar para la rareza de sus palabras
+    private void unindex(int doc) {
+        for (String word : words[doc]) {
+            PostingList list = postings.get(word);
+            if (--list.live == 0) {
+                postings.remove(word);
+            }
+        }
+        totalLength -= lengths[doc];
+        words[doc] = null;
+    }
+
+    // Renumerar los documentos cuando más de la mitad son huecos de tareas
+    // eliminadas, sin volver a leer los textos
+    private void compactIfSparse() {
+        if (nextDoc < 1024 || docIds.size() * 2 > nextDoc) {
+            return;
+        }
+        int[] renumbered = new int[nextDoc];
+        int count = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (words[doc] == null) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = count;
+            ids[count] = ids[doc];
+            words[count] = words[doc];
+            lengths[count] = lengths[doc];
+            docIds.put(ids[count], count);
+            count++;
+        }
+        Arrays.fill(words, count, nextDoc, null);
+        nextDoc = count;
+        for (PostingList list : postings.values()) {
+            list.renumber(renumbered);
+        }
+    }
+
+    // Listas de la palabra buscada y de las parecidas, con su peso
+    private Map<PostingList, Float> expand(String word, boolean prefixes, boolean typoTolerant) {
+        Map<PostingList, Float> expansions = new HashMap<>();
+        PostingList exact = postings.get(word);
+        if (exact != null) {
+            expansions.put(exact, 1f);
+        }
+        if (prefixes && word.length() >= MIN_PREFIX_LENGTH) {
+            addMostFrequent(expansions, postings.subMap(word, false, word + Character.MAX_VALUE, false).values(),
+                    PREFIX_WEIGHT);
+        }
+        if (typoTolerant && word.length() >= MIN_TYPO_LENGTH) {
+            // Solo las que empiezan por la misma letra: la primera casi nunca es la errata
+            int maxEdits = word.length() >= TWO_TYPOS_LENGTH ? 2 : 1;
+            char first = word.charAt(0);
+            List<PostingList> similar = new ArrayList<>();
+            for (PostingList list : postings.subMap(String.valueOf(first), true,
+                    String.valueOf((char) (first + 1)), false).values()) {
+                if (Math.abs(list.word.length() - word.length()) <= maxEdits && list != exact
+                        && withinEdits(word, list.word, maxEdits)) {
+                    similar.add(list);
+                }
+            }
+            addMostFrequent(expansions, similar, TYPO_WEIGHT);
+        }
+        return expansions;
+    }
+
+    private static void addMostFrequent(Map<PostingList, Float> expansions, Collection<PostingList> lists,
+            float weight) {
+        List<PostingList> candidates = new ArrayList<>(lists);
+        if (candidates.size() > MAX_EXPANSIONS) {
+            candidates.sort(Comparator.comparingInt((PostingList list) -> list.live).reversed());
+            candidates = candidates.subList(0, MAX_EXPANSIONS);
+        }
+        for (PostingList list : candidates) {
+            expansions.merge(list, weight, Math::max);
+        }
+    }
+
+    // Distancia de edición (inserción, borrado, sustitución o trasposición de
+    // dos letras seguidas) como mucho maxEdits; se abandona en cuanto una
+    // fila entera la supera
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > maxEdits) {
+                return false;
+            }
+            int[] reused = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = reused;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    // Rareza de una palabra presente en "frequency" de "count" documentos (siempre positiva)
+    private static float idf(int frequency, int count) {
+        return (float) Math.log(1 + (count - frequency + 0.5) / (frequency + 0.5));
+    }
+
+    private static boolean isBetter(float score, long id, Hit worst) {
+        return score > worst.score || score == worst.score && id < worst.task.getId();
+    }
+
+    // Puntuación de los documentos que aparecen en una búsqueda, con hueco
+    // para todos los que pueden aparecer (nunca crece). Si son pocos se usa
+    // direccionamiento abierto; si son al menos la cuarta parte del índice,
+    // un array por número de documento, que entonces ocupa menos.
+    private static final class DocScores {
+        // Documento + 1 de cada posición (0 = libre); null en el array directo
+        private final int[] keys;
+        final float[] values;
+        private final int mask;
+
+        DocScores(int expected, int documents) {
+            if (expected >= documents / 4) {
+                keys = null;
+                values = new float[documents];
+                mask = 0;
+            } else {
+                int capacity = Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1;
+                keys = new int[capacity];
+                values = new float[capacity];
+                mask = capacity - 1;
+            }
+        }
+
+        // Posición del documento, que se ocupa (con puntuación 0) si no estaba
+        int slot(int doc) {
+            if (keys == null) {
+                return doc;
+            }
+            int hash = doc * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != 0 && keys[slot] != doc + 1) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = doc + 1;
+            return slot;
+        }
+
+        // Documento de una posición, o -1 si está libre (las puntuaciones
+        // siempre son positivas, así que en el array directo 0 es libre)
+        int docAt(int slot) {
+            if (keys == null) {
+                return values[slot] > 0 ? slot : -1;
+            }
+            return keys[slot] - 1;
+        }
+    }
+
+    private static final class Hit {
+        final Task task;
+        final float score;
+
+        Hit(Task task, float score) {
+            this.task = task;
+            this.score = score;
+        }
+    }
+
+    // Documentos (en orden creciente) que contienen una palabra, con su frecuencia
+    private static final class PostingList {
+        final String word;
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+        // Documentos que no se han eliminado
+        private int live;
+
+        PostingList(String word) {
+            this.word = word;
+        }
+
+        // Los documentos nuevos siempre tienen el número más alto
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package gestortareas;
+
+/**
+ * Hilo de escritura en segundo plano con agrupación de cambios.
+ *
+ * Cada cambio solo marca el estado como pendiente (markDirty); el hilo espera
+ * la ventana configurada desde el primer cambio y ejecuta una única acción de
+ * guardado para todos los cambios acumulados en ese tiempo. flush() adelanta
+ * la escritura y espera a que termine; close() escribe lo pendiente y detiene
+ * el hilo.
+ */
+public class GroupCommitWriter implements AutoCloseable {
+    private final Runnable flushAction;
+    private final long windowMillis;
+    private final Thread thread;
+    private final Object lock = new Object();
+
+    // Número de cambios marcados y cambios ya incluidos en una escritura terminada
+    private long dirtySequence;
+    private long flushedSequence;
+    private boolean urgent;
+    private boolean closed;
+
+    public GroupCommitWriter(String name, long windowMillis, Runnable flushAction) {
+        this.flushAction = flushAction;
+        this.windowMillis = windowMillis;
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Marcar que hay cambios por guardar (no bloquea)
+    public void markDirty() {
+        synchronized (lock) {
+            dirtySequence++;
+            lock.notifyAll();
+        }
+    }
+
+    // Escribir ya los cambios pendientes y esperar a que terminen
+    public void flush() {
+        if (Thread.currentThread() == thread) {
+            flushAction.run();
+            return;
+        }
+        synchronized (lock) {
+            long target = dirtySequence;
+            if (flushedSequence < target) {
+                urgent = true;
+                lock.notifyAll();
+            }
+            while (flushedSequence < target && thread.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long sequence;
+            synchronized (lock) {
+                try {
+                    while (dirtySequence == flushedSequence && !closed) {
+                        lock.wait();
+                    }
+                    if (dirtySequence == flushedSequence) {
+                        // Cerrado y sin cambios pendientes
+                        return;
+                    }
+                    // Esperar la ventana para agrupar los cambios que sigan llegando
+                    long deadline = System.currentTimeMillis() + windowMillis;
+                    long remaining = windowMillis;
+                    while (remaining > 0 && !urgent && !closed) {
+                        lock.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    // Se escribe igualmente lo pendiente
+                }
+                sequence = dirtySequence;
+                urgent = false;
+            }
+
+            try {
+                flushAction.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error al guardar en segundo plano: " + e.getMessage());
+            }
+
+            synchronized (lock) {
+                flushedSequence = sequence;
+                lock.notifyAll();
+            }
+        }
+    }
+}
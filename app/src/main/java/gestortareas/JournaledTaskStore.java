@@ -0,0 +1,182 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacenamiento por defecto: instantánea binaria (tasks.dat) más un diario
+ * de cambios que se compacta en la instantánea cada cierto número de registros.
+ *
+ * Con una ventana de escritura mayor que cero, los cambios solo se codifican
+ * en memoria en el hilo que los hace y un GroupCommitWriter los escribe en
+ * disco agrupados, una vez por ventana. En ese modo la compactación se hace
+ * en el hilo de escritura a partir de los archivos, sin tocar la lista en uso.
+ *
+ * Al cargar, las descripciones se quedan en tasks.dat y se leen al pedirlas a
+ * través de una caché LRU con un límite de memoria (DescriptionCache).
+ */
+public class JournaledTaskStore extends AbstractJournalStore {
+    // Número mínimo de registros del diario a partir del cual se compacta en la
+    // instantánea; con muchas tareas se espera a que el diario llegue a la mitad
+    // de la instantánea, para que una importación grande no la reescriba entera
+    // cada pocos miles de altas
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    private final File dataFile;
+    private List<Task> tasks = new ArrayList<>();
+    // Generación de la instantánea actual; el diario solo se aplica si coincide
+    private int snapshotGeneration;
+    // Tareas de la última instantánea escrita o leída
+    private int snapshotCount;
+    // Descripciones ya leídas de la instantánea
+    private final DescriptionCache descriptionCache;
+
+    public JournaledTaskStore(String dataFile, String journalFile) {
+        this(dataFile, journalFile, 0);
+    }
+
+    public JournaledTaskStore(String dataFile, String journalFile, long flushWindowMillis) {
+        this(dataFile, journalFile, flushWindowMillis, DescriptionCache.DEFAULT_MAX_BYTES);
+    }
+
+    public JournaledTaskStore(String dataFile, String journalFile, long flushWindowMillis,
+            long descriptionCacheBytes) {
+        super(journalFile, flushWindowMillis);
+        this.dataFile = new File(dataFile);
+        this.descriptionCache = new DescriptionCache(descriptionCacheBytes);
+    }
+
+    // Cargar tareas (instantánea + reproducción del diario)
+    @Override
+    public List<Task> load() {
+        synchronized (diskLock) {
+            try {
+                tasks = readSnapshot().tasks;
+            } catch (IOException | RuntimeException e) {
+                reportError("Error al cargar las tareas: " + e.getMessage());
+                tasks = new ArrayList<>();
+            }
+            try {
+                boolean replayed = journal.replay(tasks, snapshotGeneration);
+                if (!replayed) {
+                    journal.reset(snapshotGeneration);
+                } else if (journal.getDiscardedBytes() > 0) {
+                    reportError("Se han descartado " + journal.getDiscardedBytes()
+                            + " bytes al final del diario de tareas: " + journal.getDiscardReason());
+                    snapshotFromMemory();
+                } else if (journal.getRecordCount() > 0) {
+                    // Incorporar los cambios de la sesión anterior a la instantánea
+                    snapshotFromMemory();
+                }
+            } catch (IOException | RuntimeException e) {
+                reportError("Error al reproducir el diario de tareas: " + e.getMessage());
+            }
+            return tasks;
+        }
+    }
+
+    // Guardar el estado completo. En modo asíncrono escribe lo pendiente y
+    // espera al hilo de escritura.
+    @Override
+    public void save() {
+        if (writer != null) {
+            writer.flush();
+            return;
+        }
+        synchronized (diskLock) {
+            snapshotFromMemory();
+        }
+    }
+
+    // Fuera de un lote: se escribe ahora o en el próximo grupo
+    @Override
+    protected void changed() {
+        if (writer != null) {
+            writer.markDirty();
+        } else {
+            writePending();
+        }
+    }
+
+    // Escribir los registros pendientes y compactar cuando el diario crece demasiado.
+    // Si el diario no se puede escribir, se intenta guardar la instantánea completa.
+    @Override
+    protected void writePending() {
+        synchronized (diskLock) {
+            try {
+                bytesWritten.addAndGet(journal.flush());
+            } catch (IOException e) {
+                reportError("Error al escribir el diario de tareas: " + e.getMessage());
+                compact();
+                return;
+            }
+            if (journal.getRecordCount() >= Math.max(COMPACTION_THRESHOLD, snapshotCount / 2)) {
+                compact();
+            }
+        }
+    }
+
+    // En modo síncrono se usa la lista en memoria; en modo asíncrono la lista
+    // pertenece a otro hilo, así que se reconstruye desde los archivos.
+    private void compact() {
+        if (writer == null) {
+            snapshotFromMemory();
+            return;
+        }
+        try {
+            TaskCodec.Snapshot onDisk = readSnapshot();
+            try {
+                if (journal.replay(onDisk.tasks, snapshotGeneration)) {
+                    writeSnapshot(onDisk.tasks);
+                }
+            } finally {
+                // Las tareas leídas solo servían para esta compactación
+                if (onDisk.descriptions != null) {
+                    onDisk.descriptions.close();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            reportError("Error al compactar el diario de tareas: " + e.getMessage());
+        }
+    }
+
+    // La lista en memoria ya incluye los registros pendientes, que se descartan
+    private void snapshotFromMemory() {
+        writeSnapshot(tasks);
+        journal.clearPending();
+    }
+
+    private TaskCodec.Snapshot readSnapshot() throws IOException {
+        snapshotGeneration = 0;
+        if (!dataFile.exists()) {
+            return new TaskCodec.Snapshot(null, new ArrayList<>(), null);
+        }
+        TaskFileMigrator.migrateIfNeeded(dataFile);
+        TaskCodec.Snapshot snapshot = TaskCodec.readSnapshot(dataFile, descriptionCache);
+        snapshotGeneration = snapshot.header.generation;
+        snapshotCount = snapshot.tasks.size();
+        return snapshot;
+    }
+
+    // Escribir la instantánea completa y vaciar el diario.
+    // La instantánea se escribe en un archivo temporal y luego se renombra,
+    // así un cierre a mitad de escritura nunca deja tasks.dat corrupto.
+    private void writeSnapshot(List<Task> snapshot) {
+        int generation = snapshotGeneration + 1;
+        File tmpFile = new File(dataFile.getPath() + ".tmp");
+        try {
+            TaskCodec.writeSnapshot(tmpFile, generation, snapshot);
+            bytesWritten.addAndGet(tmpFile.length());
+            Files.move(tmpFile.toPath(), dataFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotGeneration = generation;
+            snapshotCount = snapshot.size();
+            journal.reset(generation);
+        } catch (IOException e) {
+            reportError("Error al guardar las tareas: " + e.getMessage());
+        }
+    }
+}
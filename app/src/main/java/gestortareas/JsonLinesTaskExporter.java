@@ -0,0 +1,25 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Exportación a JSON Lines en una sola pasada: un objeto JSON por línea y
+ * por tarea, con el formato de TaskJson.
+ */
+public class JsonLinesTaskExporter implements TaskExporter {
+
+    @Override
+    public String getFileExtension() {
+        return "jsonl";
+    }
+
+    @Override
+    public void export(List<Task> tasks, Writer out) throws IOException {
+        for (Task task : tasks) {
+            TaskJson.writeTask(out, task);
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Lista de tareas respaldada por archivos mapeados en memoria (FileChannel.map).
+ *
+ * El archivo de índice guarda una cabecera y un registro de tamaño fijo por
+ * tarea (flags, fechas como días desde epoch y la posición de título y
+ * descripción); los textos se guardan en un segundo archivo que solo crece.
+ * Los objetos Task se crean al acceder a cada elemento y no se conservan:
+ * el heap solo guarda las posiciones de los registros vivos, y quien
+ * necesita el estado de todas las tareas (contadores, fechas límite) lo lee
+ * de los campos fijos con forEachRecord() sin crear ninguna.
+ *
+ * Un registro vivo no se reescribe salvo para cambiar su estado (un solo
+ * byte): cualquier otro cambio escribe la nueva versión en un registro nuevo,
+ * con los textos nuevos ya forzados a disco, y después marca el anterior como
+ * borrado. Si un cierre inesperado deja las dos versiones, al abrir se queda
+ * la del registro posterior. En memoria los registros vivos se mantienen en
+ * orden de id y una tarea se localiza con una búsqueda binaria.
+ *
+ * Los registros borrados y los textos que ya no usa nadie se recuperan al
+ * compactar: los registros vivos se copian, con sus textos seguidos, a
+ * archivos nuevos que sustituyen a los actuales. Se compacta al abrir y antes
+ * de ampliar un archivo cuando más de la mitad es espacio descartado, o
+ * cuando ampliarlo superaría el límite de 2 GB de cada archivo (un único
+ * MappedByteBuffer).
+ */
+public class MappedTaskList extends AbstractList<Task> implements RandomAccess, Closeable {
+    private static final int MAGIC = 0x544D4D50; // "TMMP"
+    private static final int VERSION = 2;
+
+    // Cabecera del índice: magic, versión, registros usados, fin del área de textos y flags
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_SLOT_COUNT = 8;
+    private static final int HEADER_HEAP_END = 16;
+    private static final int HEADER_FLAGS = 24;
+    // Índice compactado cuyo archivo de textos nuevo puede estar aún en el .tmp
+    private static final int HEADER_FLAG_HEAP_PENDING = 1;
+
+    // Registro de cada tarea
+    private static final int RECORD_SIZE = 48;
+    private static final int V1_RECORD_SIZE = 40;
+    private static final int FLAGS = 0;
+    private static final int CREATED_DATE = 4;
+    private static final int DUE_DATE = 8;
+    private static final int TITLE_LENGTH = 12;
+    private static final int TITLE_OFFSET = 16;
+    private static final int DESCRIPTION_OFFSET = 24;
+    private static final int DESCRIPTION_LENGTH = 32;
+    private static final int ID = 40;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_HAS_DUE_DATE = 1 << 1;
+    private static final int FLAG_DELETED = 1 << 2;
+    private static final int NULL_LENGTH = -1;
+
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int INITIAL_HEAP_SIZE = 1 << 20;
+
+    private final File indexFile;
+    private final File heapFile;
+    private FileChannel indexChannel;
+    private FileChannel heapChannel;
+    private MappedByteBuffer index;
+    private MappedByteBuffer heap;
+
+    private int slotCount;
+    private long heapEnd;
+    // Registros vivos, en orden de id, como posiciones dentro del índice
+    private int[] live;
+    private int size;
+    // Bytes de textos de los registros vivos; el resto hasta heapEnd está descartado
+    private long liveTextBytes;
+
+    public MappedTaskList(File indexFile, File heapFile) throws IOException {
+        this.indexFile = indexFile;
+        this.heapFile = heapFile;
+        upgradeVersion1(indexFile);
+        finishCompaction(indexFile, heapFile);
+        boolean isNew = indexFile.length() < HEADER_SIZE;
+        openFiles();
+        try {
+            if (isNew) {
+                index.putInt(0, MAGIC);
+                index.putInt(4, VERSION);
+                writeCounters();
+            } else if (index.getInt(0) != MAGIC || index.getInt(4) > VERSION) {
+                throw new IOException("El archivo " + indexFile.getName() + " no es un índice de tareas válido");
+            }
+
+            slotCount = index.getInt(HEADER_SLOT_COUNT);
+            heapEnd = index.getLong(HEADER_HEAP_END);
+            live = new int[Math.max(slotCount, 16)];
+            for (int slot = 0; slot < slotCount; slot++) {
+                if ((index.get(recordOffset(slot) + FLAGS) & FLAG_DELETED) == 0) {
+                    live[size++] = slot;
+                }
+            }
+            if (!isSortedById()) {
+                sortById();
+            }
+            for (int i = 0; i < size; i++) {
+                liveTextBytes += textBytes(live[i]);
+            }
+            if (mostlyDiscarded()) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            heapChannel.close();
+            throw e;
+        }
+    }
+
+    private void openFiles() throws IOException {
+        indexChannel = FileChannel.open(indexFile.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        heapChannel = FileChannel.open(heapFile.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(indexChannel.size(), HEADER_SIZE + (long) INITIAL_SLOTS * RECORD_SIZE));
+            heap = heapChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(heapChannel.size(), INITIAL_HEAP_SIZE));
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            heapChannel.close();
+            throw e;
+        }
+    }
+
+    // Terminar una compactación interrumpida: si el índice nuevo ya está en
+    // su sitio, su archivo de textos también (ver compact()); si no, los
+    // archivos nuevos a medias se descartan
+    private static void finishCompaction(File indexFile, File heapFile) throws IOException {
+        File heapTmp = tmpFile(heapFile);
+        if (indexFile.length() >= HEADER_SIZE) {
+            try (FileChannel channel = FileChannel.open(indexFile.toPath(),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                    // Leer la cabecera completa
+                }
+                if (header.getInt(0) == MAGIC && (header.getInt(HEADER_FLAGS) & HEADER_FLAG_HEAP_PENDING) != 0) {
+                    if (heapTmp.exists()) {
+                        Files.move(heapTmp.toPath(), heapFile.toPath(),
+                                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    channel.write(ByteBuffer.allocate(Integer.BYTES), HEADER_FLAGS);
+                    channel.force(false);
+                    return;
+                }
+            }
+        }
+        Files.deleteIfExists(tmpFile(indexFile).toPath());
+        Files.deleteIfExists(heapTmp.toPath());
+    }
+
+    private static File tmpFile(File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    // Los índices de la versión 1 no guardaban el id: se reescriben con
+    // registros de 48 bytes y el id igual a la posición del registro + 1
+    private static void upgradeVersion1(File indexFile) throws IOException {
+        if (indexFile.length() < HEADER_SIZE) {
+            return;
+        }
+        byte[] old = java.nio.file.Files.readAllBytes(indexFile.toPath());
+        ByteBuffer in = ByteBuffer.wrap(old);
+        if (in.getInt(0) != MAGIC || in.getInt(4) != 1) {
+            return;
+        }
+        int slots = in.getInt(HEADER_SLOT_COUNT);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + slots * RECORD_SIZE);
+        out.put(old, 0, HEADER_SIZE);
+        out.putInt(4, VERSION);
+        for (int slot = 0; slot < slots; slot++) {
+            int to = HEADER_SIZE + slot * RECORD_SIZE;
+            out.put(to, old, HEADER_SIZE + slot * V1_RECORD_SIZE, V1_RECORD_SIZE);
+            out.putLong(to + ID, slot + 1);
+        }
+        File tmpFile = new File(indexFile.getPath() + ".tmp");
+        java.nio.file.Files.write(tmpFile.toPath(), out.array());
+        java.nio.file.Files.move(tmpFile.toPath(), indexFile.toPath(),
+                java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Task get(int i) {
+        checkIndex(i);
+        return read(live[i]);
+    }
+
+    // Tarea con ese id, o null si no existe
+    // Tarea con ese id (null si no existe o está marcada con delete())
+    public Task findById(long id) {
+        int position = indexOfId(id);
+        if (position < 0 || (index.get(recordOffset(live[position]) + FLAGS) & FLAG_DELETED) != 0) {
+            return null;
+        }
+        return read(live[position]);
+    }
+
+    /**
+     * Campos fijos de un registro vivo: lo necesario para contar las tareas
+     * e indexar sus fechas límite sin leer los textos.
+     */
+    public interface RecordVisitor {
+        void visit(long id, boolean completed, boolean hasDueDate, int dueDay);
+    }
+
+    // Recorrer los registros vivos en orden sin crear objetos Task
+    public void forEachRecord(RecordVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            int offset = recordOffset(live[i]);
+            int flags = index.get(offset + FLAGS);
+            visitor.visit(index.getLong(offset + ID), (flags & FLAG_COMPLETED) != 0,
+                    (flags & FLAG_HAS_DUE_DATE) != 0, index.getInt(offset + DUE_DATE));
+        }
+    }
+
+    private Task read(int slot) {
+        int offset = recordOffset(slot);
+        int flags = index.get(offset + FLAGS);
+        return Task.fromStorage(index.getLong(offset + ID),
+                readString(index.getLong(offset + TITLE_OFFSET), index.getInt(offset + TITLE_LENGTH)),
+                readString(index.getLong(offset + DESCRIPTION_OFFSET), index.getInt(offset + DESCRIPTION_LENGTH)),
+                (flags & FLAG_HAS_DUE_DATE) != 0 ? index.getInt(offset + DUE_DATE) : Task.NO_DATE,
+                index.getInt(offset + CREATED_DATE),
+                (flags & FLAG_COMPLETED) != 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Solo se admite agregar al final
+    @Override
+    public void add(int i, Task task) {
+        if (i != size) {
+            throw new UnsupportedOperationException("Solo se pueden agregar tareas al final");
+        }
+        byte[] title = encode(task.getTitle());
+        byte[] description = encode(task.getDescription());
+        reserve(length(title) + length(description));
+        int slot = slotCount;
+        writeRecord(slot, task, title, description, -1);
+        slotCount++;
+        writeCounters();
+        liveTextBytes += textBytes(slot);
+
+        if (size == live.length) {
+            live = Arrays.copyOf(live, live.length * 2);
+        }
+        live[size++] = slot;
+        modCount++;
+    }
+
+    // Un cambio de estado solo reescribe el byte de flags del registro. Si
+    // cambia algo más, la nueva versión va a un registro nuevo (los textos sin
+    // cambios se reutilizan) y el anterior se marca como borrado al final: los
+    // textos nuevos se fuerzan a disco antes de que el índice apunte a ellos
+    @Override
+    public Task set(int i, Task task) {
+        Task previous = get(i);
+        if (Objects.equals(previous.getTitle(), task.getTitle())
+                && Objects.equals(previous.getDescription(), task.getDescription())
+                && previous.getDueEpochDay() == task.getDueEpochDay()) {
+            index.put(recordOffset(live[i]) + FLAGS, flags(task));
+            return previous;
+        }
+        byte[] title = encode(task.getTitle());
+        byte[] description = encode(task.getDescription());
+        reserve(length(title) + length(description));
+        int previousSlot = live[i];
+        int slot = slotCount;
+        long textsStart = heapEnd;
+        writeRecord(slot, task, title, description, previousSlot);
+        if (heapEnd > textsStart) {
+            heap.force((int) textsStart, (int) (heapEnd - textsStart));
+        }
+        slotCount++;
+        writeCounters();
+        markDeleted(previousSlot);
+        live[i] = slot;
+        liveTextBytes += textBytes(slot) - textBytes(previousSlot);
+        return previous;
+    }
+
+    @Override
+    public Task remove(int i) {
+        Task previous = get(i);
+        markDeleted(live[i]);
+        liveTextBytes -= textBytes(live[i]);
+        System.arraycopy(live, i + 1, live, i, size - i - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    /**
+     * Marca como borrado en el archivo el registro de la posición i sin
+     * quitarlo todavía de la lista: sigue ocupando su posición (y get() lo
+     * devuelve) hasta la siguiente llamada a removeDeleted(). Así varios
+     * borrados seguidos no desplazan cada vez el resto de posiciones.
+     */
+    public void delete(int i) {
+        Objects.checkIndex(i, size);
+        markDeleted(live[i]);
+        liveTextBytes -= textBytes(live[i]);
+    }
+
+    // Quitar de la lista, en una sola pasada, los registros marcados con delete()
+    public void removeDeleted() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = live[i];
+            if ((index.get(recordOffset(slot) + FLAGS) & FLAG_DELETED) == 0) {
+                live[kept++] = slot;
+            }
+        }
+        if (kept != size) {
+            size = kept;
+            modCount++;
+        }
+    }
+
+    // Borrado en una sola pasada (evita el desplazamiento por cada elemento)
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = live[i];
+            if (filter.test(read(slot))) {
+                markDeleted(slot);
+                liveTextBytes -= textBytes(slot);
+            } else {
+                live[kept++] = slot;
+            }
+        }
+        boolean removed = kept != size;
+        if (removed) {
+            size = kept;
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            markDeleted(live[i]);
+        }
+        size = 0;
+        liveTextBytes = 0;
+        modCount++;
+    }
+
+    // Posición de la tarea con ese id (búsqueda binaria sobre los registros vivos)
+    public int indexOfId(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = index.getLong(recordOffset(live[middle]) + ID);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Task ? indexOfId(((Task) o).getId()) : -1;
+    }
+
+    // Forzar la escritura de las páginas modificadas a disco
+    public void force() {
+        index.force();
+        heap.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        indexChannel.close();
+        heapChannel.close();
+    }
+
+    // Escribe un registro nuevo (más allá de slotCount, así que todavía no
+    // cuenta); reserve() ya dejó sitio para él y sus textos
+    private void writeRecord(int slot, Task task, byte[] title, byte[] description, int previousSlot) {
+        int offset = recordOffset(slot);
+        int previous = previousSlot >= 0 ? recordOffset(previousSlot) : -1;
+        long titleOffset = writeString(title, previous, TITLE_OFFSET, TITLE_LENGTH);
+        long descriptionOffset = writeString(description, previous, DESCRIPTION_OFFSET, DESCRIPTION_LENGTH);
+
+        index.putInt(offset + CREATED_DATE, task.getCreatedEpochDay());
+        index.putInt(offset + DUE_DATE, task.hasDueDate() ? task.getDueEpochDay() : 0);
+        index.putInt(offset + TITLE_LENGTH, title != null ? title.length : NULL_LENGTH);
+        index.putLong(offset + TITLE_OFFSET, titleOffset);
+        index.putLong(offset + DESCRIPTION_OFFSET, descriptionOffset);
+        index.putInt(offset + DESCRIPTION_LENGTH, description != null ? description.length : NULL_LENGTH);
+        index.putLong(offset + ID, task.getId());
+        index.put(offset + FLAGS, flags(task));
+    }
+
+    private static byte flags(Task task) {
+        int flags = 0;
+        if (task.isCompleted()) {
+            flags |= FLAG_COMPLETED;
+        }
+        if (task.hasDueDate()) {
+            flags |= FLAG_HAS_DUE_DATE;
+        }
+        return (byte) flags;
+    }
+
+    // Escribe un texto en el área de textos, o reutiliza el anterior si no cambió
+    private long writeString(byte[] bytes, int previousRecord, int offsetField, int lengthField) {
+        if (bytes == null) {
+            return 0;
+        }
+        if (previousRecord >= 0 && index.getInt(previousRecord + lengthField) == bytes.length) {
+            long previousOffset = index.getLong(previousRecord + offsetField);
+            byte[] previousBytes = new byte[bytes.length];
+            heap.get((int) previousOffset, previousBytes);
+            if (Arrays.equals(bytes, previousBytes)) {
+                return previousOffset;
+            }
+        }
+
+        ensureHeapCapacity(heapEnd + bytes.length);
+        long offset = heapEnd;
+        heap.put((int) offset, bytes);
+        heapEnd += bytes.length;
+        return offset;
+    }
+
+    private String readString(long offset, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        heap.get((int) offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    // Bytes de textos de un registro
+    private int textBytes(int slot) {
+        int offset = recordOffset(slot);
+        return Math.max(index.getInt(offset + TITLE_LENGTH), 0) + Math.max(index.getInt(offset + DESCRIPTION_LENGTH), 0);
+    }
+
+    private void markDeleted(int slot) {
+        int offset = recordOffset(slot) + FLAGS;
+        index.put(offset, (byte) (index.get(offset) | FLAG_DELETED));
+    }
+
+    private void writeCounters() {
+        index.putInt(HEADER_SLOT_COUNT, slotCount);
+        index.putLong(HEADER_HEAP_END, heapEnd);
+    }
+
+    // Sitio para un registro más y textBytes bytes de textos. Antes de ampliar
+    // un archivo se compacta si la mitad es espacio descartado o si la
+    // ampliación llegaría al límite de 2 GB y hay algo que recuperar.
+    private void reserve(long textBytes) {
+        long indexRequired = HEADER_SIZE + (long) (slotCount + 1) * RECORD_SIZE;
+        long heapRequired = heapEnd + textBytes;
+        if (indexRequired > index.capacity() || heapRequired > heap.capacity()) {
+            boolean nearLimit = Math.max(index.capacity(), heap.capacity()) > Integer.MAX_VALUE / 2;
+            if (mostlyDiscarded() || nearLimit && (slotCount > size || heapEnd > liveTextBytes)) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error al compactar el almacenamiento mapeado", e);
+                }
+            }
+        }
+        ensureIndexCapacity(slotCount + 1);
+        ensureHeapCapacity(heapEnd + textBytes);
+    }
+
+    private boolean mostlyDiscarded() {
+        return slotCount - size >= Math.max(INITIAL_SLOTS, slotCount / 2)
+                || heapEnd - liveTextBytes >= Math.max(INITIAL_HEAP_SIZE, heapEnd / 2);
+    }
+
+    /**
+     * Copiar los registros vivos, en orden y con sus textos seguidos, a
+     * archivos .tmp y ponerlos en lugar de los actuales. El índice nuevo se
+     * renombra primero y lleva la marca HEADER_FLAG_HEAP_PENDING hasta que
+     * su archivo de textos también está en su sitio; si el proceso se corta
+     * entre los dos renombrados, finishCompaction() completa el cambio al
+     * abrir. Las posiciones en la lista no cambian.
+     */
+    private void compact() throws IOException {
+        File indexTmp = tmpFile(indexFile);
+        File heapTmp = tmpFile(heapFile);
+        long indexSize = Math.min(Integer.MAX_VALUE,
+                HEADER_SIZE + (long) Math.max(INITIAL_SLOTS, 2 * size) * RECORD_SIZE);
+        long heapSize = Math.min(Integer.MAX_VALUE, Math.max(INITIAL_HEAP_SIZE, 2 * liveTextBytes));
+        long newHeapEnd = 0;
+        try (FileChannel newIndexChannel = FileChannel.open(indexTmp.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                FileChannel newHeapChannel = FileChannel.open(heapTmp.toPath(), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer newIndex = newIndexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+            MappedByteBuffer newHeap = newHeapChannel.map(FileChannel.MapMode.READ_WRITE, 0, heapSize);
+            for (int i = 0; i < size; i++) {
+                int from = recordOffset(live[i]);
+                int to = recordOffset(i);
+                newIndex.put(to, index, from, RECORD_SIZE);
+                newHeapEnd = copyText(newIndex, newHeap, from, to, TITLE_OFFSET, TITLE_LENGTH, newHeapEnd);
+                newHeapEnd = copyText(newIndex, newHeap, from, to, DESCRIPTION_OFFSET, DESCRIPTION_LENGTH,
+                        newHeapEnd);
+            }
+            newIndex.putInt(0, MAGIC);
+            newIndex.putInt(4, VERSION);
+            newIndex.putInt(HEADER_SLOT_COUNT, size);
+            newIndex.putLong(HEADER_HEAP_END, newHeapEnd);
+            newIndex.putInt(HEADER_FLAGS, HEADER_FLAG_HEAP_PENDING);
+            newHeap.force();
+            newIndex.force();
+        }
+
+        force();
+        indexChannel.close();
+        heapChannel.close();
+        Files.move(indexTmp.toPath(), indexFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(heapTmp.toPath(), heapFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openFiles();
+        index.putInt(HEADER_FLAGS, 0);
+        index.force();
+
+        slotCount = size;
+        heapEnd = newHeapEnd;
+        for (int i = 0; i < size; i++) {
+            live[i] = i;
+        }
+    }
+
+    // Copiar un texto de un registro al final del archivo de textos nuevo
+    private long copyText(MappedByteBuffer newIndex, MappedByteBuffer newHeap, int from, int to, int offsetField,
+            int lengthField, long newHeapEnd) {
+        int length = index.getInt(from + lengthField);
+        if (length <= 0) {
+            newIndex.putLong(to + offsetField, 0);
+            return newHeapEnd;
+        }
+        newHeap.put((int) newHeapEnd, heap, (int) index.getLong(from + offsetField), length);
+        newIndex.putLong(to + offsetField, newHeapEnd);
+        return newHeapEnd + length;
+    }
+
+    private boolean isSortedById() {
+        for (int i = 1; i < size; i++) {
+            if (idAt(i - 1) >= idAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ordenar los registros vivos por id tras cambios que escribieron versiones
+    // nuevas al final; si un cierre inesperado dejó dos versiones de una
+    // tarea, la del registro anterior se marca como borrada
+    private void sortById() {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = live[i];
+        }
+        Arrays.sort(slots, Comparator.comparingLong((Integer slot) -> index.getLong(recordOffset(slot) + ID))
+                .thenComparingInt(slot -> slot));
+        int kept = 0;
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            if (i + 1 < slots.length
+                    && index.getLong(recordOffset(slots[i + 1]) + ID) == index.getLong(recordOffset(slot) + ID)) {
+                markDeleted(slot);
+            } else {
+                live[kept++] = slot;
+            }
+        }
+        size = kept;
+    }
+
+    private long idAt(int i) {
+        return index.getLong(recordOffset(live[i]) + ID);
+    }
+
+    private void ensureIndexCapacity(int slots) {
+        long required = HEADER_SIZE + (long) slots * RECORD_SIZE;
+        if (required > index.capacity()) {
+            index = remap(indexChannel, index.capacity(), required);
+        }
+    }
+
+    private void ensureHeapCapacity(long required) {
+        if (required > heap.capacity()) {
+            heap = remap(heapChannel, heap.capacity(), required);
+        }
+    }
+
+    // Ampliar el mapeo al doble (o a lo necesario) dentro del límite de 2 GB
+    private static MappedByteBuffer remap(FileChannel channel, long current, long required) {
+        long newSize = Math.min(Math.max(current * 2, required), Integer.MAX_VALUE);
+        if (newSize < required) {
+            throw new IllegalStateException("El almacenamiento mapeado supera el tamaño máximo de 2 GB");
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al ampliar el archivo mapeado", e);
+        }
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Índice: " + i + ", tamaño: " + size);
+        }
+    }
+}
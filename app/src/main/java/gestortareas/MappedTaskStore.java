@@ -0,0 +1,103 @@
+package gestortareas;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Almacenamiento opcional sobre archivos mapeados en memoria (MappedTaskList).
+ *
+ * Cada cambio se escribe directamente en el archivo mapeado, así que no hace
+ * falta diario ni instantánea; save() solo fuerza las páginas a disco. La
+ * primera vez importa las tareas de tasks.dat si existe.
+ */
+public class MappedTaskStore implements TaskStore {
+    private final File indexFile;
+    private final File heapFile;
+    private final String importDataFile;
+    private final String importJournalFile;
+    private MappedTaskList tasks;
+    private volatile Consumer<String> errorListener = message -> {
+    };
+
+    public MappedTaskStore(String indexFile, String heapFile, String importDataFile, String importJournalFile) {
+        this.indexFile = new File(indexFile);
+        this.heapFile = new File(heapFile);
+        this.importDataFile = importDataFile;
+        this.importJournalFile = importJournalFile;
+    }
+
+    @Override
+    public List<Task> load() {
+        boolean firstOpen = !indexFile.exists();
+        try {
+            tasks = new MappedTaskList(indexFile, heapFile);
+        } catch (IOException e) {
+            reportError("Error al abrir el almacenamiento mapeado: " + e.getMessage());
+            return new ArrayList<>();
+        }
+
+        if (firstOpen && new File(importDataFile).exists()) {
+            List<Task> existing = new JournaledTaskStore(importDataFile, importJournalFile).load();
+            tasks.addAll(existing);
+            tasks.force();
+            System.out.println("Importadas " + existing.size() + " tareas de " + importDataFile);
+        }
+        return tasks;
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        // MappedTaskList ya escribió el registro al agregarlo
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+        // La nueva versión ya se escribió al reemplazarla en la MappedTaskList
+    }
+
+    @Override
+    public void taskStatusChanged(Task task) {
+        // La nueva versión ya se escribió al reemplazarla en la MappedTaskList
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        // El registro ya quedó marcado como borrado
+    }
+
+    @Override
+    public void completedTasksCleared() {
+        // Los registros ya quedaron marcados como borrados
+    }
+
+    @Override
+    public void setErrorListener(Consumer<String> listener) {
+        errorListener = listener;
+    }
+
+    private void reportError(String message) {
+        System.err.println(message);
+        errorListener.accept(message);
+    }
+
+    @Override
+    public void save() {
+        if (tasks != null) {
+            tasks.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (tasks != null) {
+            try {
+                tasks.close();
+            } catch (IOException e) {
+                reportError("Error al cerrar el almacenamiento mapeado: " + e.getMessage());
+            }
+        }
+    }
+}
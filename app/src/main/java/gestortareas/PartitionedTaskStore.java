@@ -0,0 +1,440 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Almacenamiento opcional en varios archivos: un segmento por mes de
+ * creación de las tareas (instantáneas con el formato de TaskCodec), un
+ * manifiesto con la lista de segmentos y el diario de cambios de siempre.
+ *
+ * Al cargar, los segmentos se leen en paralelo en el pool de fork-join
+ * común. Cada cambio se registra en el diario y marca su segmento como
+ * modificado; al guardar o compactar solo se reescriben esos segmentos.
+ * Los segmentos nuevos se escriben con el número de generación en el nombre
+ * y el manifiesto se sustituye al final, así un cierre a mitad de escritura
+ * deja siempre el conjunto anterior completo; los archivos que ya no están
+ * en el manifiesto se borran.
+ *
+ * Si el manifiesto o algún segmento no se puede leer, el almacenamiento
+ * queda en modo de solo lectura: se cargan los segmentos legibles, pero no
+ * se reproduce el diario ni se escribe o borra nada, para no sustituir los
+ * archivos dañados por un conjunto incompleto.
+ *
+ * La primera vez importa las tareas de tasks.dat si existe. Con una ventana
+ * de escritura, el diario se escribe en segundo plano (GroupCommitWriter);
+ * las compactaciones se hacen siempre en el hilo que notifica los cambios,
+ * que es el único que toca la lista. Si el hilo de escritura no puede
+ * escribir el diario, solo avisa: los registros siguen pendientes y el
+ * siguiente cambio guarda los segmentos.
+ */
+public class PartitionedTaskStore extends AbstractJournalStore {
+    private static final int MANIFEST_MAGIC = 0x544D4750; // "TMGP"
+    private static final int MANIFEST_VERSION = 1;
+    private static final String MANIFEST_FILE = "manifest";
+    private static final String JOURNAL_FILE = "tasks.journal";
+    private static final String SEGMENT_PREFIX = "tasks-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    // Cambios registrados a partir de los cuales se reescriben los segmentos
+    // modificados (o la mitad de las tareas, si son más: ver JournaledTaskStore)
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final String READ_ONLY_NOTICE = ". Los cambios no se guardarán hasta reparar el almacenamiento.";
+
+    private final File directory;
+    private final File manifestFile;
+    private final String importDataFile;
+    private final String importJournalFile;
+    private List<Task> tasks = new ArrayList<>();
+    // Segmentos del manifiesto por periodo (mes de creación), en orden
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private int generation;
+    // Periodos con cambios todavía no escritos en su segmento
+    private final Set<Integer> dirtyPeriods = new HashSet<>();
+    private int changesSinceCompaction;
+    // Error al cargar: los cambios se quedan en memoria y no se toca el disco
+    private boolean readOnly;
+    // La última escritura del diario falló (en el hilo de escritura)
+    private volatile boolean journalFailed;
+    private final DescriptionCache descriptionCache;
+
+    public PartitionedTaskStore(String directory, String importDataFile, String importJournalFile) {
+        this(directory, importDataFile, importJournalFile, 0, DescriptionCache.DEFAULT_MAX_BYTES);
+    }
+
+    public PartitionedTaskStore(String directory, String importDataFile, String importJournalFile,
+            long flushWindowMillis, long descriptionCacheBytes) {
+        super(new File(directory, JOURNAL_FILE).getPath(), flushWindowMillis);
+        this.directory = new File(directory);
+        this.manifestFile = new File(directory, MANIFEST_FILE);
+        this.importDataFile = importDataFile;
+        this.importJournalFile = importJournalFile;
+        this.descriptionCache = new DescriptionCache(descriptionCacheBytes);
+    }
+
+    // Segmento del manifiesto: periodo, archivo y número de tareas
+    private static final class Segment {
+        final int period;
+        final String fileName;
+        final int count;
+
+        Segment(int period, String fileName, int count) {
+            this.period = period;
+            this.fileName = fileName;
+            this.count = count;
+        }
+    }
+
+    @Override
+    public List<Task> load() {
+        synchronized (diskLock) {
+            if (!manifestFile.exists()) {
+                importTasks();
+                return tasks;
+            }
+            try {
+                readManifest();
+            } catch (IOException | RuntimeException e) {
+                reportError("Error al cargar las tareas: " + e.getMessage() + READ_ONLY_NOTICE);
+                readOnly = true;
+                tasks = new ArrayList<>();
+                return tasks;
+            }
+            List<String> failures = new ArrayList<>();
+            tasks = readSegments(failures);
+            if (failures.isEmpty()) {
+                deleteUnusedFiles();
+                replayJournal();
+            } else {
+                reportError("Error al cargar las tareas: " + String.join("; ", failures) + READ_ONLY_NOTICE);
+                readOnly = true;
+            }
+            if (!isSortedById(tasks)) {
+                tasks.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+            }
+            return tasks;
+        }
+    }
+
+    // Aplicar el diario de la sesión anterior e incorporarlo a los segmentos
+    private void replayJournal() {
+        try {
+            List<Task> loaded = new ArrayList<>(tasks);
+            boolean replayed = journal.replay(tasks, generation);
+            if (!replayed) {
+                journal.reset(generation);
+            } else if (journal.getRecordCount() > 0 || journal.getDiscardedBytes() > 0) {
+                if (journal.getDiscardedBytes() > 0) {
+                    reportError("Se han descartado " + journal.getDiscardedBytes()
+                            + " bytes al final del diario de tareas: " + journal.getDiscardReason());
+                }
+                // Incorporar los cambios de la sesión anterior a sus segmentos
+                markReplayedChanges(loaded);
+                writeSegments();
+            }
+        } catch (IOException | RuntimeException e) {
+            reportError("Error al reproducir el diario de tareas: " + e.getMessage());
+        }
+    }
+
+    // Primera apertura: todas las tareas de tasks.dat (si existe) van a sus segmentos
+    private void importTasks() {
+        directory.mkdirs();
+        if (new File(importDataFile).exists()) {
+            tasks = new JournaledTaskStore(importDataFile, importJournalFile).load();
+            System.out.println("Importadas " + tasks.size() + " tareas de " + importDataFile);
+        } else {
+            tasks = new ArrayList<>();
+        }
+        for (Task task : tasks) {
+            dirtyPeriods.add(periodOf(task));
+        }
+        writeSegments();
+    }
+
+    // Los segmentos se decodifican en paralelo; el resultado queda en el orden
+    // de los periodos, que normalmente es también el de los ids. Los segmentos
+    // que no se pueden leer se anotan en failures y no aportan tareas.
+    private List<Task> readSegments(List<String> failures) {
+        List<List<Task>> parts = new ArrayList<>(segments.values()).parallelStream()
+                .map(segment -> {
+                    try {
+                        return readSegment(segment);
+                    } catch (IOException | RuntimeException e) {
+                        synchronized (failures) {
+                            failures.add("no se pudo leer " + segment.fileName + ": " + e.getMessage());
+                        }
+                        return Collections.<Task>emptyList();
+                    }
+                })
+                .collect(Collectors.toList());
+        int count = 0;
+        for (List<Task> part : parts) {
+            count += part.size();
+        }
+        List<Task> all = new ArrayList<>(count + COMPACTION_THRESHOLD);
+        for (List<Task> part : parts) {
+            all.addAll(part);
+        }
+        return all;
+    }
+
+    private List<Task> readSegment(Segment segment) throws IOException {
+        return TaskCodec.readSnapshot(new File(directory, segment.fileName), descriptionCache).tasks;
+    }
+
+    // Marcar los periodos que cambió el diario: la reproducción conserva el
+    // orden de la lista, sustituye las tareas modificadas por otra instancia,
+    // quita las eliminadas y agrega las nuevas al final
+    private void markReplayedChanges(List<Task> loaded) {
+        int position = 0;
+        for (Task before : loaded) {
+            Task after = position < tasks.size() ? tasks.get(position) : null;
+            if (after != null && after.getId() == before.getId()) {
+                if (after != before) {
+                    dirtyPeriods.add(periodOf(after));
+                }
+                position++;
+            } else {
+                dirtyPeriods.add(periodOf(before));
+            }
+        }
+        for (int i = position; i < tasks.size(); i++) {
+            dirtyPeriods.add(periodOf(tasks.get(i)));
+        }
+    }
+
+    // Escribir el diario y reescribir los segmentos modificados
+    @Override
+    public void save() {
+        if (readOnly) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        synchronized (diskLock) {
+            writeSegments();
+        }
+    }
+
+    @Override
+    protected boolean isReadOnly() {
+        return readOnly;
+    }
+
+    // Marcar el periodo de la tarea. Los segmentos afectados al limpiar las
+    // completadas se detectan al escribir, porque cambia su número de tareas.
+    @Override
+    protected void changeLogged(Task task) {
+        if (task != null) {
+            dirtyPeriods.add(periodOf(task));
+        }
+        changesSinceCompaction++;
+    }
+
+    // Fuera de un lote la lista ya está al día: se puede compactar aquí mismo
+    @Override
+    protected void changed() {
+        if (!needsCompaction()) {
+            if (writer != null) {
+                writer.markDirty();
+                return;
+            }
+            writePending();
+            if (!needsCompaction()) {
+                return;
+            }
+        }
+        synchronized (diskLock) {
+            writeSegments();
+        }
+    }
+
+    // Compactar cuando el diario crece demasiado o no se pudo escribir
+    private boolean needsCompaction() {
+        return journalFailed || changesSinceCompaction >= Math.max(COMPACTION_THRESHOLD, tasks.size() / 2);
+    }
+
+    // En modo asíncrono se ejecuta en el hilo de escritura, que no puede tocar
+    // la lista: si falla, flush() conserva los registros y solo se avisa
+    @Override
+    protected void writePending() {
+        synchronized (diskLock) {
+            try {
+                bytesWritten.addAndGet(journal.flush());
+            } catch (IOException e) {
+                reportError("Error al escribir el diario de tareas: " + e.getMessage());
+                journalFailed = true;
+            }
+        }
+    }
+
+    // Reescribir los segmentos modificados, guardar el manifiesto de la nueva
+    // generación y vaciar el diario (con diskLock, desde el hilo de la lista).
+    // Una pasada por la lista en memoria reparte las tareas por periodo; un
+    // periodo cuyo número de tareas cambió (limpieza de completadas) también
+    // se reescribe.
+    private void writeSegments() {
+        if (readOnly) {
+            return;
+        }
+        Map<Integer, List<Task>> dirtyTasks = new HashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Task task : tasks) {
+            int period = periodOf(task);
+            counts.merge(period, 1, Integer::sum);
+            if (dirtyPeriods.contains(period)) {
+                dirtyTasks.computeIfAbsent(period, p -> new ArrayList<>()).add(task);
+            }
+        }
+        Set<Integer> recounted = new HashSet<>();
+        for (Segment segment : segments.values()) {
+            if (!dirtyPeriods.contains(segment.period) && counts.getOrDefault(segment.period, 0) != segment.count) {
+                recounted.add(segment.period);
+            }
+        }
+        if (!recounted.isEmpty()) {
+            dirtyPeriods.addAll(recounted);
+            for (Task task : tasks) {
+                int period = periodOf(task);
+                if (recounted.contains(period)) {
+                    dirtyTasks.computeIfAbsent(period, p -> new ArrayList<>()).add(task);
+                }
+            }
+        }
+
+        int newGeneration = generation;
+        TreeMap<Integer, Segment> newSegments = new TreeMap<>(segments);
+        if (!dirtyPeriods.isEmpty() || !manifestFile.exists()) {
+            newGeneration++;
+            try {
+                for (int period : dirtyPeriods) {
+                    List<Task> periodTasks = dirtyTasks.get(period);
+                    if (periodTasks == null) {
+                        newSegments.remove(period);
+                    } else {
+                        newSegments.put(period, writeSegment(period, newGeneration, periodTasks));
+                    }
+                }
+                writeManifest(newGeneration, newSegments);
+            } catch (IOException e) {
+                reportError("Error al guardar las tareas: " + e.getMessage());
+                return;
+            }
+        }
+        generation = newGeneration;
+        segments.clear();
+        segments.putAll(newSegments);
+        dirtyPeriods.clear();
+        changesSinceCompaction = 0;
+        // Los registros pendientes ya están en los segmentos
+        journal.clearPending();
+        journalFailed = false;
+        try {
+            journal.reset(generation);
+        } catch (IOException e) {
+            reportError("Error al vaciar el diario de tareas: " + e.getMessage());
+        }
+        deleteUnusedFiles();
+    }
+
+    // Escribir un segmento con un nombre nuevo (el anterior sigue en el manifiesto vigente)
+    private Segment writeSegment(int period, int newGeneration, List<Task> periodTasks) throws IOException {
+        String fileName = segmentName(period, newGeneration);
+        File tmpFile = new File(directory, fileName + ".tmp");
+        TaskCodec.writeSnapshot(tmpFile, newGeneration, periodTasks);
+        bytesWritten.addAndGet(tmpFile.length());
+        Files.move(tmpFile.toPath(), new File(directory, fileName).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Segment(period, fileName, periodTasks.size());
+    }
+
+    private void readManifest() throws IOException {
+        segments.clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestFile)))) {
+            if (in.readInt() != MANIFEST_MAGIC) {
+                throw new IOException("El manifiesto no tiene el formato esperado");
+            }
+            int version = in.readInt();
+            if (version > MANIFEST_VERSION) {
+                throw new IOException("Versión de manifiesto no soportada: " + version);
+            }
+            generation = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Segment segment = new Segment(in.readInt(), in.readUTF(), in.readInt());
+                segments.put(segment.period, segment);
+            }
+        }
+    }
+
+    // El manifiesto se escribe aparte y se renombra: es el paso que hace visibles los segmentos nuevos
+    private void writeManifest(int newGeneration, TreeMap<Integer, Segment> newSegments) throws IOException {
+        File tmpFile = new File(directory, MANIFEST_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MANIFEST_MAGIC);
+            out.writeInt(MANIFEST_VERSION);
+            out.writeInt(newGeneration);
+            out.writeInt(newSegments.size());
+            for (Segment segment : newSegments.values()) {
+                out.writeInt(segment.period);
+                out.writeUTF(segment.fileName);
+                out.writeInt(segment.count);
+            }
+        }
+        bytesWritten.addAndGet(tmpFile.length());
+        Files.move(tmpFile.toPath(), manifestFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Borrar segmentos reemplazados y temporales de escrituras interrumpidas.
+    // Las tareas cargadas de un segmento borrado siguen leyendo sus
+    // descripciones del archivo abierto (DescriptionSection).
+    private void deleteUnusedFiles() {
+        Set<String> used = new HashSet<>();
+        for (Segment segment : segments.values()) {
+            used.add(segment.fileName);
+        }
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) || name.endsWith(".tmp"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!used.contains(file.getName()) && !file.delete()) {
+                System.err.println("No se pudo borrar " + file.getName());
+            }
+        }
+    }
+
+    // Periodo de una tarea: mes de su fecha de creación (año * 12 + mes - 1)
+    static int periodOf(Task task) {
+        LocalDate created = LocalDate.ofEpochDay(task.getCreatedEpochDay());
+        return created.getYear() * 12 + created.getMonthValue() - 1;
+    }
+
+    // Nombre del segmento: tasks-aaaa-mm.g<generación>.dat
+    private static String segmentName(int period, int generation) {
+        return String.format("%s%04d-%02d.g%d%s", SEGMENT_PREFIX, Math.floorDiv(period, 12),
+                Math.floorMod(period, 12) + 1, generation, SEGMENT_SUFFIX);
+    }
+
+    private static boolean isSortedById(List<Task> list) {
+        for (int i = 1; i < list.size(); i++) {
+            if (list.get(i - 1).getId() > list.get(i).getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
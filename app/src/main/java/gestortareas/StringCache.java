@@ -0,0 +1,39 @@
+package gestortareas;
+
+/**
+ * Caché pequeña para compartir los textos repetidos de las tareas (títulos
+ * o descripciones iguales, descripciones vacías...). Es una tabla de tamaño
+ * fijo indexada por el hash del texto: si la casilla ya tiene un texto igual
+ * se devuelve ese, y si no, el nuevo ocupa su lugar. No crece ni retiene
+ * textos únicos más allá de sus casillas.
+ *
+ * No usa sincronización: dos hilos pueden pisarse una casilla y, como mucho,
+ * se pierde una coincidencia. Las String son inmutables, así que leer una
+ * casilla escrita por otro hilo es seguro.
+ */
+final class StringCache {
+    private static final int SIZE = 1 << 14;
+    // Textos más largos no se comparan (no suelen repetirse y la comparación cuesta)
+    private static final int MAX_LENGTH = 256;
+    private static final String[] SLOTS = new String[SIZE];
+
+    private StringCache() {
+    }
+
+    static String dedup(String text) {
+        if (text == null || text.length() > MAX_LENGTH) {
+            return text;
+        }
+        if (text.isEmpty()) {
+            return "";
+        }
+        int hash = text.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        String cached = SLOTS[slot];
+        if (text.equals(cached)) {
+            return cached;
+        }
+        SLOTS[slot] = text;
+        return text;
+    }
+}
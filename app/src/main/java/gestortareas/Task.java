@@ -0,0 +1,232 @@
+package gestortareas;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Tarea inmutable: los cambios crean una copia (withDetails, withCompleted),
+ * de modo que una tarea se puede compartir entre hilos sin sincronización.
+ *
+ * Para ocupar poco con millones de tareas, las fechas se guardan como días
+ * desde 1970-01-01 (getDueDate() y getCreatedDate() crean el LocalDate al
+ * pedirlo), el estado va en un byte de flags y los textos repetidos se
+ * comparten a través de StringCache. Las tareas cargadas de una instantánea
+ * no guardan la descripción sino su posición en el archivo
+ * (DescriptionSection.Ref), y la leen al pedirla.
+ */
+public class Task implements Serializable {
+    private static final long serialVersionUID = 2L;
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Día que indica "sin fecha límite"
+    static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte FLAG_COMPLETED = 1;
+
+    // Identificador único asignado por el TaskManager (0 = tarea sin gestor)
+    private final long id;
+    private final String title;
+    // String, o DescriptionSection.Ref en las tareas cargadas de una instantánea
+    private final Object description;
+    private final int dueDay;
+    private final int createdDay;
+    private final byte flags;
+
+    public Task(String title, String description, LocalDate dueDate) {
+        this(0, title, description, dueDate, LocalDate.now(), false);
+    }
+
+    // Constructor alternativo sin fecha límite
+    public Task(String title, String description) {
+        this(title, description, null);
+    }
+
+    // Constructor completo, usado al crear tareas en el gestor y al reconstruir las guardadas
+    Task(long id, String title, String description, LocalDate dueDate, LocalDate createdDate, boolean completed) {
+        this(id, StringCache.dedup(title), StringCache.dedup(description), toDay(dueDate),
+                (int) createdDate.toEpochDay(), completed ? FLAG_COMPLETED : 0);
+    }
+
+    // Sin copiar textos ni crear fechas: para las copias y la lectura de archivos
+    private Task(long id, String title, Object description, int dueDay, int createdDay, byte flags) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDay = dueDay;
+        this.createdDay = createdDay;
+        this.flags = flags;
+    }
+
+    // Tarea leída de un archivo, con las fechas ya como días (dueDay puede ser NO_DATE)
+    static Task fromStorage(long id, String title, String description, int dueDay, int createdDay,
+            boolean completed) {
+        return new Task(id, StringCache.dedup(title), StringCache.dedup(description), dueDay, createdDay,
+                completed ? FLAG_COMPLETED : 0);
+    }
+
+    // Tarea leída de una instantánea con la descripción pendiente de leer
+    static Task fromSnapshot(long id, String title, DescriptionSection.Ref description, int dueDay,
+            int createdDay, boolean completed) {
+        return new Task(id, StringCache.dedup(title), description, dueDay, createdDay,
+                completed ? FLAG_COMPLETED : 0);
+    }
+
+    private static int toDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    // Copia de la tarea con otro identificador (archivos sin identificadores)
+    Task withId(long id) {
+        return new Task(id, title, description, dueDay, createdDay, flags);
+    }
+
+    // Copia con otro título, descripción y fecha límite
+    public Task withDetails(String title, String description, LocalDate dueDate) {
+        return new Task(id, StringCache.dedup(title), StringCache.dedup(description), toDay(dueDate), createdDay,
+                flags);
+    }
+
+    // Copia con otro estado (la misma instancia si no cambia)
+    public Task withCompleted(boolean completed) {
+        if (completed == isCompleted()) {
+            return this;
+        }
+        return new Task(id, title, description, dueDay, createdDay,
+                (byte) (completed ? flags | FLAG_COMPLETED : flags & ~FLAG_COMPLETED));
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        Object value = description;
+        if (value instanceof DescriptionSection.Ref) {
+            return ((DescriptionSection.Ref) value).load();
+        }
+        return (String) value;
+    }
+
+    // Descripción para recorridos de todas las tareas (índice de texto): si
+    // está en el archivo se lee sin pasar por la caché, para no desalojar
+    // las que la interfaz tiene en uso
+    String scanDescription() {
+        Object value = description;
+        if (value instanceof DescriptionSection.Ref) {
+            return ((DescriptionSection.Ref) value).read();
+        }
+        return (String) value;
+    }
+
+    // Mismo título y misma descripción (sin leerla del archivo)
+    boolean hasSameText(Task other) {
+        return Objects.equals(title, other.title)
+                && (description == other.description || description instanceof String
+                        && description.equals(other.description));
+    }
+
+    // Referencia a la descripción en el archivo, o null si está en memoria
+    DescriptionSection.Ref getStoredDescription() {
+        Object value = description;
+        return value instanceof DescriptionSection.Ref ? (DescriptionSection.Ref) value : null;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDay == NO_DATE ? null : LocalDate.ofEpochDay(dueDay);
+    }
+
+    public boolean hasDueDate() {
+        return dueDay != NO_DATE;
+    }
+
+    // Fecha límite en días desde 1970-01-01 (NO_DATE si no tiene), sin crear objetos
+    int getDueEpochDay() {
+        return dueDay;
+    }
+
+    public boolean isCompleted() {
+        return (flags & FLAG_COMPLETED) != 0;
+    }
+
+    public LocalDate getCreatedDate() {
+        return LocalDate.ofEpochDay(createdDay);
+    }
+
+    int getCreatedEpochDay() {
+        return createdDay;
+    }
+
+    // Métodos de utilidad
+    public boolean isDueDateExpired() {
+        return isDueDateExpired(LocalDate.now());
+    }
+
+    // Variante para recorridos: la fecha actual se obtiene una sola vez
+    public boolean isDueDateExpired(LocalDate today) {
+        return dueDay != NO_DATE && !isCompleted() && today.toEpochDay() > dueDay;
+    }
+
+    // dd/MM/yyyy escrito a mano (los años de cuatro cifras, que son todos en la práctica)
+    public String getFormattedDueDate() {
+        if (dueDay == NO_DATE) return "Sin fecha límite";
+        LocalDate date = LocalDate.ofEpochDay(dueDay);
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            return date.format(DUE_DATE_FORMAT);
+        }
+        char[] text = new char[10];
+        putTwoDigits(text, 0, date.getDayOfMonth());
+        text[2] = '/';
+        putTwoDigits(text, 3, date.getMonthValue());
+        text[5] = '/';
+        putTwoDigits(text, 6, year / 100);
+        putTwoDigits(text, 8, year % 100);
+        return new String(text);
+    }
+
+    private static void putTwoDigits(char[] text, int position, int value) {
+        text[position] = (char) ('0' + value / 10);
+        text[position + 1] = (char) ('0' + value % 10);
+    }
+
+    // Al serializar se guarda el texto de la descripción, no su posición en el archivo
+    private Object writeReplace() {
+        if (description instanceof DescriptionSection.Ref) {
+            return new Task(id, title, getDescription(), dueDay, createdDay, flags);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(title);
+        if (dueDay != NO_DATE) {
+            sb.append(" (Vence: ").append(getFormattedDueDate()).append(")");
+        }
+        if (isCompleted()) {
+            sb.append(" [COMPLETADA]");
+        }
+        return sb.toString();
+    }
+
+    // Dos tareas son iguales si tienen el mismo identificador; las que aún no
+    // tienen (id 0) solo son iguales a sí mismas
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Task task = (Task) obj;
+        return id != 0 && id == task.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
@@ -0,0 +1,207 @@
+package gestortareas;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renderer de la lista de tareas.
+ *
+ * Pinta directamente líneas de texto plano (título, descripción, fecha
+ * límite y aviso de vencida) en lugar de generar HTML, que Swing tendría que
+ * volver a analizar en cada repintado. Los textos de cada tarea se preparan
+ * una vez y se guardan en una caché pequeña (solo hacen falta las filas
+ * visibles); como las tareas son inmutables, se invalidan cuando la tarea se
+ * reemplaza por otra instancia o cuando cambia el día.
+ */
+public class TaskCellRenderer extends JComponent implements ListCellRenderer<Task> {
+    private static final long serialVersionUID = 1L;
+
+    // Colores compartidos por todas las filas
+    private static final Color COMPLETED_BACKGROUND = new Color(212, 237, 218);
+    private static final Color COMPLETED_FOREGROUND = new Color(40, 167, 69);
+    private static final Color EXPIRED_BACKGROUND = new Color(248, 215, 218);
+    private static final Color EXPIRED_FOREGROUND = new Color(220, 53, 69);
+    private static final Color DEFAULT_BACKGROUND = Color.WHITE;
+    private static final Color DEFAULT_FOREGROUND = Color.BLACK;
+    private static final Color SEPARATOR_COLOR = Color.LIGHT_GRAY;
+    private static final Color DUE_DATE_COLOR = Color.GRAY;
+    private static final Color EXPIRED_LABEL_COLOR = Color.RED;
+
+    private static final int PADDING = 8;
+    private static final int LINE_COUNT = 4;
+    private static final int CACHE_SIZE = 512;
+    private static final String EXPIRED_LABEL = "¡VENCIDA!";
+
+    // Textos ya preparados de una tarea
+    private static final class Entry {
+        final Task task;
+        final long day;
+        final String title;
+        final String description;
+        final String dueDate;
+        final boolean expired;
+
+        Entry(Task task, long day, LocalDate today) {
+            this.task = task;
+            this.day = day;
+            this.title = task.getTitle() != null ? task.getTitle() : "";
+            this.description = firstLine(task.getDescription());
+            this.dueDate = "Fecha límite: " + task.getFormattedDueDate();
+            this.expired = task.isDueDateExpired(today);
+        }
+    }
+
+    private final Map<Long, Entry> cache = new LinkedHashMap<Long, Entry>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Fuentes derivadas de la de la lista; se recalculan solo si esta cambia
+    private Font baseFont;
+    private Font titleFont;
+    private Font smallFont;
+    private Font smallBoldFont;
+
+    // Estado de la fila que se va a pintar
+    private Entry entry;
+    private Color textColor;
+    private boolean selected;
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Task> list, Task task, int index,
+            boolean isSelected, boolean cellHasFocus) {
+        updateFonts(list.getFont());
+
+        LocalDate today = LocalDate.now();
+        long day = today.toEpochDay();
+        Entry cached = cache.get(task.getId());
+        if (cached == null || cached.task != task || cached.day != day) {
+            cached = new Entry(task, day, today);
+            cache.put(task.getId(), cached);
+        }
+        entry = cached;
+        selected = isSelected;
+
+        if (isSelected) {
+            setBackground(list.getSelectionBackground());
+            textColor = list.getSelectionForeground();
+        } else if (task.isCompleted()) {
+            setBackground(COMPLETED_BACKGROUND);
+            textColor = COMPLETED_FOREGROUND;
+        } else if (cached.expired) {
+            setBackground(EXPIRED_BACKGROUND);
+            textColor = EXPIRED_FOREGROUND;
+        } else {
+            setBackground(DEFAULT_BACKGROUND);
+            textColor = DEFAULT_FOREGROUND;
+        }
+        return this;
+    }
+
+    private void updateFonts(Font font) {
+        if (font != null && !font.equals(baseFont)) {
+            baseFont = font;
+            titleFont = font.deriveFont(Font.BOLD);
+            smallFont = font.deriveFont(font.getSize2D() * 0.85f);
+            smallBoldFont = smallFont.deriveFont(Font.BOLD);
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (titleFont == null) {
+            return new Dimension(0, 0);
+        }
+        FontMetrics titleMetrics = getFontMetrics(titleFont);
+        FontMetrics smallMetrics = getFontMetrics(smallFont);
+        int height = PADDING * 2 + 1 + titleMetrics.getHeight() + (LINE_COUNT - 1) * smallMetrics.getHeight();
+        int width = PADDING * 2 + Math.max(titleMetrics.stringWidth(entry.title),
+                smallMetrics.stringWidth(entry.description));
+        return new Dimension(width, height);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, width, height);
+        g.setColor(SEPARATOR_COLOR);
+        g.drawLine(0, height - 1, width, height - 1);
+        if (entry == null) {
+            return;
+        }
+
+        if (g instanceof Graphics2D) {
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        FontMetrics titleMetrics = g.getFontMetrics(titleFont);
+        FontMetrics smallMetrics = g.getFontMetrics(smallFont);
+
+        int y = PADDING + titleMetrics.getAscent();
+        g.setFont(titleFont);
+        g.setColor(textColor);
+        g.drawString(entry.title, PADDING, y);
+
+        y += titleMetrics.getDescent() + smallMetrics.getAscent();
+        g.setFont(smallFont);
+        g.drawString(entry.description, PADDING, y);
+
+        y += smallMetrics.getHeight();
+        g.setColor(selected ? textColor : DUE_DATE_COLOR);
+        g.drawString(entry.dueDate, PADDING, y);
+
+        if (entry.expired) {
+            y += smallMetrics.getHeight();
+            g.setFont(smallBoldFont);
+            g.setColor(selected ? textColor : EXPIRED_LABEL_COLOR);
+            g.drawString(EXPIRED_LABEL, PADDING, y);
+        }
+    }
+
+    // Solo la primera línea de la descripción cabe en la fila
+    private static String firstLine(String text) {
+        if (text == null) {
+            return "";
+        }
+        int end = text.indexOf('\n');
+        return end == -1 ? text : text.substring(0, end);
+    }
+
+    // Como en DefaultListCellRenderer: el renderer no participa en el árbol de componentes
+    @Override
+    public void invalidate() {
+    }
+
+    @Override
+    public void validate() {
+    }
+
+    @Override
+    public void revalidate() {
+    }
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+    }
+
+    @Override
+    public void repaint() {
+    }
+
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+    }
+}
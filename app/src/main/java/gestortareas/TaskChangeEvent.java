@@ -0,0 +1,108 @@
+package gestortareas;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aviso de cambios de un TaskManager para los TaskChangeListener.
+ *
+ * Un alta, un cambio o una baja sueltos dan un aviso de su tipo con una sola
+ * tarea. Un lote (batch) o limpiar las completadas dan un único aviso
+ * BULK_CHANGED con el resultado neto: una tarea agregada y luego modificada
+ * en el lote llega como agregada en su última versión, y una agregada y
+ * eliminada no aparece.
+ *
+ * Los contadores son los del gestor justo después del cambio, para poder
+ * actualizar estadísticas sin volver a consultarlas.
+ */
+public final class TaskChangeEvent {
+    public enum Type {
+        ADDED, UPDATED, REMOVED, BULK_CHANGED
+    }
+
+    private final Type type;
+    private final List<Task> added;
+    private final List<Update> updated;
+    private final List<Task> removed;
+    private final int totalCount;
+    private final int completedCount;
+    private final int overdueCount;
+
+    TaskChangeEvent(Type type, List<Task> added, List<Update> updated, List<Task> removed,
+            int totalCount, int completedCount, int overdueCount) {
+        this.type = type;
+        this.added = Collections.unmodifiableList(added);
+        this.updated = Collections.unmodifiableList(updated);
+        this.removed = Collections.unmodifiableList(removed);
+        this.totalCount = totalCount;
+        this.completedCount = completedCount;
+        this.overdueCount = overdueCount;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Tareas nuevas, en su versión actual
+    public List<Task> getAdded() {
+        return added;
+    }
+
+    // Tareas modificadas (estado, título, descripción o fecha)
+    public List<Update> getUpdated() {
+        return updated;
+    }
+
+    // Tareas eliminadas, en la última versión que tuvieron
+    public List<Task> getRemoved() {
+        return removed;
+    }
+
+    // Número de tareas afectadas
+    public int getChangeCount() {
+        return added.size() + updated.size() + removed.size();
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getPendingCount() {
+        return totalCount - completedCount;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[agregadas=" + added.size() + ", modificadas=" + updated.size()
+                + ", eliminadas=" + removed.size() + "]";
+    }
+
+    /**
+     * Tarea modificada: versión anterior y versión nueva (mismo id).
+     */
+    public static final class Update {
+        private final Task before;
+        private final Task after;
+
+        Update(Task before, Task after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        public Task getBefore() {
+            return before;
+        }
+
+        public Task getAfter() {
+            return after;
+        }
+    }
+}
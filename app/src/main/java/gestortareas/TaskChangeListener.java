@@ -0,0 +1,15 @@
+package gestortareas;
+
+/**
+ * Oyente de los cambios de un TaskManager (addChangeListener).
+ *
+ * Recibe los avisos fuera del bloqueo del gestor y en el mismo orden en que
+ * se hicieron los cambios, desde el hilo que los hizo (o desde otro que esté
+ * entregando avisos en ese momento): si tiene que tocar la interfaz, debe
+ * pasar el aviso al EDT. Puede consultar y modificar el gestor; los avisos
+ * de esos cambios llegan después del actual.
+ */
+@FunctionalInterface
+public interface TaskChangeListener {
+    void tasksChanged(TaskChangeEvent event);
+}
@@ -0,0 +1,336 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binario compacto y versionado de las tareas.
+ *
+ * Archivo: cabecera (magic, versión, generación, cantidad) seguida de los
+ * registros. Cada registro guarda un byte de flags (completada, tiene fecha
+ * límite), el identificador de la tarea (long, desde la versión 2), la fecha
+ * de creación y la fecha límite como días desde epoch (int), y título y
+ * descripción como UTF-8 con su longitud delante (-1 = null).
+ *
+ * Desde la versión 3 las descripciones van juntas en una sección entre la
+ * cabecera y los registros, y cada registro guarda solo su longitud y su
+ * posición en el archivo; la cabecera indica dónde empiezan los registros.
+ * Así la carga lee solo los registros y las descripciones se leen al pedirlas
+ * (DescriptionSection). El diario sigue usando el registro con la
+ * descripción incluida (writeTask/readTask).
+ *
+ * A diferencia de la serialización de Java, no depende de la estructura
+ * interna de la clase Task ni escribe descriptores de clase.
+ */
+public final class TaskCodec {
+    public static final int MAGIC = 0x544D4754; // "TMGT"
+    public static final int VERSION = 3;
+    // Primera versión que guarda el identificador de cada tarea
+    private static final int VERSION_WITH_IDS = 2;
+    // Primera versión con las descripciones en una sección aparte
+    private static final int VERSION_WITH_DESCRIPTION_SECTION = 3;
+
+    // Cabecera: magic, versión, generación, cantidad y (desde la versión 3) inicio de los registros
+    private static final int LEGACY_HEADER_SIZE = 16;
+    private static final int HEADER_SIZE = 24;
+    private static final int HEADER_RECORDS_OFFSET = 16;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_HAS_DUE_DATE = 1 << 1;
+    private static final int NULL_LENGTH = -1;
+
+    private TaskCodec() {
+    }
+
+    // Cabecera del archivo de tareas
+    public static final class Header {
+        public final int version;
+        public final int generation;
+        public final int count;
+        // Posición del primer registro en el archivo
+        public final long recordsOffset;
+
+        Header(int version, int generation, int count, long recordsOffset) {
+            this.version = version;
+            this.generation = generation;
+            this.count = count;
+            this.recordsOffset = recordsOffset;
+        }
+    }
+
+    // Instantánea leída: cabecera, tareas y sección de descripciones (null si no quedó ninguna en el archivo)
+    public static final class Snapshot {
+        public final Header header;
+        public final List<Task> tasks;
+        final DescriptionSection descriptions;
+
+        Snapshot(Header header, List<Task> tasks, DescriptionSection descriptions) {
+            this.header = header;
+            this.tasks = tasks;
+            this.descriptions = descriptions;
+        }
+    }
+
+    public static Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < LEGACY_HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("El archivo no tiene el formato binario de tareas");
+        }
+        int version = buffer.getInt();
+        if (version > VERSION) {
+            throw new IOException("Versión de formato no soportada: " + version);
+        }
+        int generation = buffer.getInt();
+        int count = buffer.getInt();
+        if (version < VERSION_WITH_DESCRIPTION_SECTION) {
+            return new Header(version, generation, count, LEGACY_HEADER_SIZE);
+        }
+        if (buffer.remaining() < HEADER_SIZE - LEGACY_HEADER_SIZE) {
+            throw new IOException("Cabecera incompleta en el archivo de tareas");
+        }
+        return new Header(version, generation, count, buffer.getLong());
+    }
+
+    // Escritura de la instantánea completa: cabecera, descripciones y registros.
+    // Las descripciones que siguen en otro archivo se copian sin decodificarlas.
+    public static void writeSnapshot(File file, int generation, List<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(generation);
+            out.writeInt(tasks.size());
+            // Inicio de los registros: se completa al final
+            out.writeLong(0);
+
+            int[] lengths = new int[tasks.size()];
+            int i = 0;
+            for (Task task : tasks) {
+                lengths[i++] = writeDescription(out, task);
+            }
+            out.flush();
+            long recordsOffset = channel.position();
+
+            long descriptionOffset = HEADER_SIZE;
+            i = 0;
+            for (Task task : tasks) {
+                int length = lengths[i++];
+                writeRecord(out, task, length, descriptionOffset);
+                descriptionOffset += Math.max(length, 0);
+            }
+            out.flush();
+            ByteBuffer offset = ByteBuffer.allocate(Long.BYTES).putLong(0, recordsOffset);
+            channel.write(offset, HEADER_RECORDS_OFFSET);
+        }
+    }
+
+    // Devuelve la longitud escrita (NULL_LENGTH si no tiene descripción)
+    private static int writeDescription(DataOutput out, Task task) throws IOException {
+        DescriptionSection.Ref stored = task.getStoredDescription();
+        if (stored != null) {
+            out.write(stored.readBytes());
+            return stored.length();
+        }
+        String description = task.getDescription();
+        if (description == null) {
+            return NULL_LENGTH;
+        }
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        return bytes.length;
+    }
+
+    private static void writeRecord(DataOutput out, Task task, int descriptionLength, long descriptionOffset)
+            throws IOException {
+        writeMetadata(out, task);
+        out.writeInt(descriptionLength);
+        if (descriptionLength > 0) {
+            out.writeLong(descriptionOffset);
+        }
+    }
+
+    // Lectura de una instantánea. Desde la versión 3 solo se leen los
+    // registros y el archivo queda abierto para leer las descripciones
+    // a través de la caché; las versiones anteriores se leen completas.
+    static Snapshot readSnapshot(File file, DescriptionCache cache) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        boolean keepOpen = false;
+        try {
+            long size = channel.size();
+            Header header = readHeader(read(channel, 0, Math.min(size, HEADER_SIZE)));
+            ByteBuffer buffer = read(channel, header.recordsOffset, size);
+            if (header.version < VERSION_WITH_DESCRIPTION_SECTION) {
+                return new Snapshot(header, readTasks(buffer, header), null);
+            }
+            DescriptionSection descriptions = new DescriptionSection(channel, cache);
+            List<Task> tasks = new ArrayList<>(header.count);
+            for (int i = 0; i < header.count; i++) {
+                Task task = readSnapshotTask(buffer, descriptions);
+                keepOpen |= task.getStoredDescription() != null;
+                tasks.add(task);
+            }
+            return new Snapshot(header, tasks, keepOpen ? descriptions : null);
+        } finally {
+            if (!keepOpen) {
+                channel.close();
+            }
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                throw new EOFException("Archivo de tareas incompleto");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static Task readSnapshotTask(ByteBuffer buffer, DescriptionSection descriptions) {
+        int flags = buffer.get() & 0xFF;
+        long id = buffer.getLong();
+        int createdDay = buffer.getInt();
+        int dueDay = (flags & FLAG_HAS_DUE_DATE) != 0 ? buffer.getInt() : Task.NO_DATE;
+        String title = readString(buffer);
+        boolean completed = (flags & FLAG_COMPLETED) != 0;
+        int descriptionLength = buffer.getInt();
+        if (descriptionLength <= 0) {
+            String description = descriptionLength == 0 ? "" : null;
+            return Task.fromStorage(id, title, description, dueDay, createdDay, completed);
+        }
+        DescriptionSection.Ref description = descriptions.ref(buffer.getLong(), descriptionLength);
+        return Task.fromSnapshot(id, title, description, dueDay, createdDay, completed);
+    }
+
+    // Comprobar si un archivo empieza con la cabecera del formato binario
+    public static boolean isBinaryFile(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Escritura de una tarea
+    public static void writeTask(DataOutput out, Task task) throws IOException {
+        writeMetadata(out, task);
+        writeString(out, task.getDescription());
+    }
+
+    // Todo el registro salvo la descripción
+    private static void writeMetadata(DataOutput out, Task task) throws IOException {
+        int flags = 0;
+        if (task.isCompleted()) {
+            flags |= FLAG_COMPLETED;
+        }
+        if (task.hasDueDate()) {
+            flags |= FLAG_HAS_DUE_DATE;
+        }
+        out.writeByte(flags);
+        out.writeLong(task.getId());
+        out.writeInt(task.getCreatedEpochDay());
+        if (task.hasDueDate()) {
+            out.writeInt(task.getDueEpochDay());
+        }
+        writeString(out, task.getTitle());
+    }
+
+    // Lectura de una tarea desde un stream
+    public static Task readTask(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+        long id = in.readLong();
+        int createdDay = in.readInt();
+        int dueDay = (flags & FLAG_HAS_DUE_DATE) != 0 ? in.readInt() : Task.NO_DATE;
+        String title = readString(in);
+        String description = readString(in);
+        return Task.fromStorage(id, title, description, dueDay, createdDay, (flags & FLAG_COMPLETED) != 0);
+    }
+
+    // Lectura de todas las tareas de un archivo de versión 1 o 2 ya cargado en memoria,
+    // tras la cabecera. Los archivos sin identificadores los reciben según su posición (1, 2, 3...).
+    private static List<Task> readTasks(ByteBuffer buffer, Header header) {
+        List<Task> tasks = new ArrayList<>(header.count);
+        boolean hasIds = header.version >= VERSION_WITH_IDS;
+        for (int i = 0; i < header.count; i++) {
+            Task task = readTask(buffer, hasIds);
+            tasks.add(hasIds ? task : task.withId(i + 1));
+        }
+        return tasks;
+    }
+
+    // Lectura de una tarea desde un buffer en memoria (carga completa del archivo)
+    public static Task readTask(ByteBuffer buffer) {
+        return readTask(buffer, true);
+    }
+
+    private static Task readTask(ByteBuffer buffer, boolean hasId) {
+        int flags = buffer.get() & 0xFF;
+        long id = hasId ? buffer.getLong() : 0;
+        int createdDay = buffer.getInt();
+        int dueDay = (flags & FLAG_HAS_DUE_DATE) != 0 ? buffer.getInt() : Task.NO_DATE;
+        String title = readString(buffer);
+        String description = readString(buffer);
+        return Task.fromStorage(id, title, description, dueDay, createdDay, (flags & FLAG_COMPLETED) != 0);
+    }
+
+    // Cadenas: longitud en bytes (int) seguida de UTF-8
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    // Fechas opcionales como días desde epoch
+    public static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeInt((int) date.toEpochDay());
+        }
+    }
+
+    public static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readInt()) : null;
+    }
+}
@@ -0,0 +1,49 @@
+package gestortareas;
+
+/**
+ * Contadores de estado de las tareas (total, pendientes y completadas) que
+ * se actualizan con cada cambio, para que las estadísticas no tengan que
+ * recorrer ni copiar la lista. Las vencidas las cuenta DueDateIndex.
+ */
+public class TaskCounters {
+    private int total;
+    private int completed;
+
+    // Contar una tarea (alta, o estado nuevo tras un cambio)
+    public void add(Task task) {
+        add(task.isCompleted());
+    }
+
+    // Contar una tarea por su estado, sin el objeto (carga del almacenamiento mapeado)
+    public void add(boolean taskCompleted) {
+        total++;
+        if (taskCompleted) {
+            completed++;
+        }
+    }
+
+    // Descontar una tarea (baja, o estado anterior a un cambio)
+    public void remove(Task task) {
+        total--;
+        if (task.isCompleted()) {
+            completed--;
+        }
+    }
+
+    public void clear() {
+        total = 0;
+        completed = 0;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getPending() {
+        return total - completed;
+    }
+}
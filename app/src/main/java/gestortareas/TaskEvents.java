@@ -0,0 +1,90 @@
+package gestortareas;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos de JDK Flight Recorder de las operaciones del TaskManager. Solo
+ * tienen coste cuando hay una grabación activa que los incluye, por ejemplo:
+ *
+ *   java -XX:StartFlightRecording=filename=tareas.jfr -jar gestor-tareas.jar
+ */
+final class TaskEvents {
+    private static final String CATEGORY = "Gestor de Tareas";
+
+    private TaskEvents() {
+    }
+
+    @Name("gestortareas.Save")
+    @Label("Guardar tareas")
+    @Category(CATEGORY)
+    static final class Save extends Event {
+        @Label("Tareas")
+        int taskCount;
+
+        @Label("Bytes escritos")
+        @DataAmount
+        long bytesWritten;
+    }
+
+    @Name("gestortareas.Load")
+    @Label("Cargar tareas")
+    @Category(CATEGORY)
+    static final class Load extends Event {
+        @Label("Almacenamiento")
+        String storage;
+
+        @Label("Tareas")
+        int taskCount;
+    }
+
+    @Name("gestortareas.Search")
+    @Label("Buscar por título")
+    @Category(CATEGORY)
+    static final class Search extends Event {
+        @Label("Palabra clave")
+        String keyword;
+
+        @Label("Resultados")
+        int resultCount;
+    }
+
+    @Name("gestortareas.Filter")
+    @Label("Filtrar tareas")
+    @Category(CATEGORY)
+    static final class Filter extends Event {
+        @Label("Filtro")
+        String filter;
+
+        @Label("Resultados")
+        int resultCount;
+    }
+
+    @Name("gestortareas.Export")
+    @Label("Exportar tareas")
+    @Category(CATEGORY)
+    static final class Export extends Event {
+        @Label("Archivo")
+        String file;
+
+        @Label("Tareas")
+        int taskCount;
+
+        @Label("Bytes escritos")
+        @DataAmount
+        long bytesWritten;
+    }
+
+    @Name("gestortareas.StorageError")
+    @Label("Error de almacenamiento")
+    @Description("Error al leer o escribir las tareas en disco")
+    @Category(CATEGORY)
+    static final class StorageError extends Event {
+        @Label("Mensaje")
+        String message;
+    }
+}
@@ -0,0 +1,42 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formato de exportación de tareas.
+ *
+ * Cada formato escribe directamente desde la lista del gestor, sin copiarla,
+ * sobre un Writer con buffer que prepara TaskManager (opcionalmente
+ * comprimido con GZIP).
+ */
+public interface TaskExporter {
+
+    // Extensión de archivo del formato (sin punto)
+    String getFileExtension();
+
+    // Escribir las tareas; la lista es la del gestor y no se debe modificar
+    void export(List<Task> tasks, Writer out) throws IOException;
+
+    // Igual, sabiendo ya cuántas están completadas (los contadores del gestor)
+    default void export(List<Task> tasks, int completedCount, Writer out) throws IOException {
+        export(tasks, out);
+    }
+
+    // Formato según la extensión del archivo (sin contar un .gz final); texto por defecto
+    static TaskExporter forFileName(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".csv")) {
+            return new CsvTaskExporter();
+        }
+        if (name.endsWith(".jsonl")) {
+            return new JsonLinesTaskExporter();
+        }
+        return new TextTaskExporter();
+    }
+}
@@ -0,0 +1,92 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migración única de archivos tasks.dat antiguos (serialización de Java)
+ * al formato binario de TaskCodec. El archivo original se conserva como
+ * copia de seguridad con extensión .bak.
+ */
+public final class TaskFileMigrator {
+
+    private TaskFileMigrator() {
+    }
+
+    // Migrar el archivo si todavía está en el formato antiguo.
+    // Devuelve true si se realizó la migración.
+    @SuppressWarnings("unchecked")
+    public static boolean migrateIfNeeded(File dataFile) throws IOException {
+        if (!dataFile.exists() || dataFile.length() == 0 || TaskCodec.isBinaryFile(dataFile)) {
+            return false;
+        }
+
+        List<LegacyTask> tasks;
+        int generation = 0;
+        try (ObjectInputStream ois = new LegacyInputStream(
+                new BufferedInputStream(new FileInputStream(dataFile)))) {
+            tasks = (List<LegacyTask>) ois.readObject();
+            try {
+                generation = ois.readInt();
+            } catch (EOFException e) {
+                // Archivo sin generación (anterior al diario)
+            }
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Formato de archivo antiguo no reconocido", e);
+        }
+
+        // Las tareas antiguas no tienen identificador: se numeran según su posición
+        List<Task> converted = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            converted.add(tasks.get(i).toTask(i + 1));
+        }
+        File tmpFile = new File(dataFile.getPath() + ".tmp");
+        TaskCodec.writeSnapshot(tmpFile, generation, converted);
+
+        File backupFile = new File(dataFile.getPath() + ".bak");
+        Files.copy(dataFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmpFile.toPath(), dataFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Archivo de tareas migrado al formato binario (copia en " + backupFile.getName() + ")");
+        return true;
+    }
+
+    /**
+     * Tarea tal como la guardaba la serialización de Java: la clase Task del
+     * paquete por defecto, con sus campos de entonces.
+     */
+    private static final class LegacyTask implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String title;
+        private String description;
+        private LocalDate dueDate;
+        private boolean completed;
+        private LocalDate createdDate;
+
+        Task toTask(long id) {
+            return new Task(id, title, description, dueDate,
+                    createdDate != null ? createdDate : LocalDate.now(), completed);
+        }
+    }
+
+    // Lee la clase antigua "Task" como LegacyTask (mismos campos y serialVersionUID)
+    private static final class LegacyInputStream extends ObjectInputStream {
+        LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass descriptor = super.readClassDescriptor();
+            if (descriptor.getName().equals("Task")) {
+                return ObjectStreamClass.lookup(LegacyTask.class);
+            }
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importación masiva de tareas desde CSV (el formato de CsvTaskExporter) o
+ * JSON Lines (el de TaskJson), leyendo el archivo en streaming.
+ *
+ * El hilo que importa lee el archivo y lo corta en bloques de filas; cada
+ * bloque se analiza en el pool de fork-join común y se agrega al gestor en
+ * un único lote (batch), en el orden del archivo: un solo bloqueo y una sola
+ * escritura del almacenamiento por bloque. Solo hay unos pocos bloques en
+ * memoria a la vez, así que la memoria no crece con el tamaño del archivo.
+ *
+ * Las fechas se aceptan como en la interfaz (dd/mm/yyyy) o en ISO-8601
+ * (yyyy-mm-dd). Las filas con errores se saltan y se informan con su número
+ * de línea; el resto se importa con ids nuevos. Si la lectura falla a mitad,
+ * los bloques ya agregados se conservan.
+ */
+public final class TaskImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    // Errores que se guardan con su detalle; el resto solo se cuentan
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final DateTimeFormatter GUI_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    public enum Format {
+        CSV, JSON_LINES;
+
+        // Formato según la extensión del archivo (sin contar un .gz final)
+        public static Format forFileName(String filename) {
+            String name = filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl")) {
+                return JSON_LINES;
+            }
+            throw new IllegalArgumentException("Formato de importación no soportado (use .csv o .jsonl): " + filename);
+        }
+    }
+
+    private final TaskManager taskManager;
+    private final int chunkSize;
+    // Bloques leídos que esperan a ser analizados o agregados
+    private final int maxChunksInFlight;
+
+    public TaskImporter(TaskManager taskManager) {
+        this(taskManager, DEFAULT_CHUNK_SIZE);
+    }
+
+    public TaskImporter(TaskManager taskManager, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamaño de bloque no válido: " + chunkSize);
+        }
+        this.taskManager = taskManager;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = ForkJoinPool.getCommonPoolParallelism() + 1;
+    }
+
+    // Importar un archivo .csv o .jsonl (con .gz final, comprimido)
+    public Result importFile(String filename) throws IOException {
+        Format format = Format.forFileName(filename);
+        boolean gzip = filename.toLowerCase(Locale.ROOT).endsWith(".gz");
+        try (InputStream file = new FileInputStream(filename);
+                InputStream in = gzip ? new GZIPInputStream(file, 1 << 16) : file) {
+            return importTasks(new InputStreamReader(in, StandardCharsets.UTF_8), format);
+        }
+    }
+
+    public Result importTasks(Reader in, Format format) throws IOException {
+        RecordReader records = new RecordReader(in, format);
+        Result result = new Result();
+        Map<String, Integer> columns = format == Format.CSV ? records.readHeader() : null;
+        Deque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            Chunk chunk;
+            while ((chunk = records.nextChunk(chunkSize)) != null) {
+                Chunk toParse = chunk;
+                inFlight.add(CompletableFuture.supplyAsync(() -> parse(toParse, format, columns),
+                        ForkJoinPool.commonPool()));
+                if (inFlight.size() >= maxChunksInFlight) {
+                    commit(join(inFlight.poll()), result);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                commit(join(inFlight.poll()), result);
+            }
+        } finally {
+            for (CompletableFuture<ParsedChunk> pending : inFlight) {
+                pending.cancel(false);
+            }
+        }
+        return result;
+    }
+
+    private static ParsedChunk join(CompletableFuture<ParsedChunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Agregar las filas válidas de un bloque en un solo lote
+    private void commit(ParsedChunk parsed, Result result) {
+        if (!parsed.rows.isEmpty()) {
+            taskManager.batch(batch -> {
+                for (Row row : parsed.rows) {
+                    batch.add(row.title, row.description, row.dueDate, row.createdDate, row.completed);
+                }
+            });
+        }
+        result.importedCount += parsed.rows.size();
+        for (RowError error : parsed.errors) {
+            result.addError(error);
+        }
+    }
+
+    // Análisis de un bloque (en el pool): cada fila da una tarea o un error
+    private static ParsedChunk parse(Chunk chunk, Format format, Map<String, Integer> columns) {
+        ParsedChunk parsed = new ParsedChunk(chunk.records.size());
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < chunk.records.size(); i++) {
+            try {
+                String record = chunk.records.get(i);
+                parsed.rows.add(format == Format.CSV ? parseCsvRow(record, columns, today) : parseJsonRow(record, today));
+            } catch (IllegalArgumentException e) {
+                parsed.errors.add(new RowError(chunk.lines[i], e.getMessage()));
+            }
+        }
+        return parsed;
+    }
+
+    private static Row parseCsvRow(String record, Map<String, Integer> columns, LocalDate today) {
+        List<String> fields = splitCsv(record);
+        String title = field(fields, columns, "titulo");
+        String description = field(fields, columns, "descripcion");
+        LocalDate dueDate = parseDate(field(fields, columns, "fecha_limite"), "fecha_limite");
+        LocalDate createdDate = parseDate(field(fields, columns, "fecha_creacion"), "fecha_creacion");
+        boolean completed = parseBoolean(field(fields, columns, "completada"), "completada");
+        return new Row(title, description, dueDate, createdDate != null ? createdDate : today, completed);
+    }
+
+    private static Row parseJsonRow(String record, LocalDate today) {
+        Map<String, Object> object = TaskJson.parseObject(record);
+        String title = TaskJson.getString(object, "title");
+        String description = TaskJson.getString(object, "description");
+        LocalDate dueDate = parseDate(TaskJson.getString(object, "dueDate"), "dueDate");
+        LocalDate createdDate = parseDate(TaskJson.getString(object, "createdDate"), "createdDate");
+        Object completed = object.get("completed");
+        if (completed != null && !(completed instanceof Boolean)) {
+            throw new IllegalArgumentException("El campo completed debe ser true o false");
+        }
+        return new Row(title, description, dueDate, createdDate != null ? createdDate : today,
+                Boolean.TRUE.equals(completed));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    // Fecha opcional en el formato de la interfaz (dd/mm/yyyy) o ISO-8601
+    static LocalDate parseDate(String value, String field) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return text.indexOf('/') >= 0 ? LocalDate.parse(text, GUI_DATE_FORMAT) : LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida en " + field + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value, String field) {
+        if (value == null) {
+            return false;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "":
+            case "false":
+            case "no":
+            case "0":
+                return false;
+            case "true":
+            case "sí":
+            case "si":
+            case "1":
+                return true;
+            default:
+                throw new IllegalArgumentException("Valor no válido en " + field + ": " + value);
+        }
+    }
+
+    // Campos de una fila CSV (RFC 4180): entre comillas pueden llevar comas,
+    // saltos de línea y comillas dobladas
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Lectura del archivo por registros: una línea en JSON Lines, o una fila
+     * CSV, que puede ocupar varias líneas si tiene saltos entre comillas (se
+     * conservan tal cual, \r\n incluido). Recorre un buffer propio en lugar
+     * de readLine() para no perder los finales de línea de los campos.
+     */
+    private static final class RecordReader {
+        private final Reader in;
+        private final Format format;
+        private final char[] buffer = new char[1 << 16];
+        private int position;
+        private int limit;
+        private final StringBuilder record = new StringBuilder();
+        private int lineNumber;
+        // Línea en la que empieza el último registro leído
+        private int recordLine;
+        private boolean firstRecord = true;
+
+        RecordReader(Reader in, Format format) {
+            this.in = in;
+            this.format = format;
+        }
+
+        // Cabecera CSV: posición de cada columna conocida (también con los nombres de TaskJson)
+        Map<String, Integer> readHeader() throws IOException {
+            String header = nextRecord();
+            if (header == null) {
+                return Collections.emptyMap();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = splitCsv(header);
+            for (int i = 0; i < names.size(); i++) {
+                String name = canonicalColumn(names.get(i).trim().toLowerCase(Locale.ROOT));
+                columns.putIfAbsent(name, i);
+            }
+            if (!columns.containsKey("titulo")) {
+                throw new IOException("La cabecera CSV no tiene la columna titulo: " + header);
+            }
+            return columns;
+        }
+
+        private static String canonicalColumn(String name) {
+            switch (name) {
+                case "title":
+                    return "titulo";
+                case "description":
+                    return "descripcion";
+                case "duedate":
+                    return "fecha_limite";
+                case "createddate":
+                    return "fecha_creacion";
+                case "completed":
+                    return "completada";
+                default:
+                    return name;
+            }
+        }
+
+        // Siguiente bloque de registros no vacíos, o null al final del archivo
+        Chunk nextChunk(int size) throws IOException {
+            List<String> records = new ArrayList<>(size);
+            int[] lines = new int[size];
+            String next;
+            while (records.size() < size && (next = nextRecord()) != null) {
+                if (next.trim().isEmpty()) {
+                    continue;
+                }
+                lines[records.size()] = recordLine;
+                records.add(next);
+            }
+            return records.isEmpty() ? null : new Chunk(records, lines);
+        }
+
+        // Registro hasta el siguiente salto de línea fuera de comillas, o null al final
+        private String nextRecord() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            lineNumber++;
+            recordLine = lineNumber;
+            record.setLength(0);
+            boolean quoted = false;
+            boolean csv = format == Format.CSV;
+            for (; c >= 0; c = read()) {
+                if (!quoted && (c == '\n' || c == '\r')) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    break;
+                }
+                if (c == '"' && csv) {
+                    quoted = !quoted;
+                } else if (c == '\n') {
+                    // Salto de línea dentro de un campo entre comillas
+                    lineNumber++;
+                }
+                record.append((char) c);
+            }
+            // Marca de orden de bytes de algunos editores
+            if (firstRecord) {
+                firstRecord = false;
+                if (record.length() > 0 && record.charAt(0) == '\uFEFF') {
+                    record.deleteCharAt(0);
+                }
+            }
+            return record.toString();
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int count = in.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = count;
+            return true;
+        }
+    }
+
+    private static final class Chunk {
+        final List<String> records;
+        // Línea de inicio de cada registro, para los errores
+        final int[] lines;
+
+        Chunk(List<String> records, int[] lines) {
+            this.records = records;
+            this.lines = lines;
+        }
+    }
+
+    private static final class ParsedChunk {
+        final List<Row> rows;
+        final List<RowError> errors = new ArrayList<>();
+
+        ParsedChunk(int size) {
+            rows = new ArrayList<>(size);
+        }
+    }
+
+    // Fila ya validada, lista para agregar al gestor
+    private static final class Row {
+        final String title;
+        final String description;
+        final LocalDate dueDate;
+        final LocalDate createdDate;
+        final boolean completed;
+
+        Row(String title, String description, LocalDate dueDate, LocalDate createdDate, boolean completed) {
+            if (title == null || title.trim().isEmpty()) {
+                throw new IllegalArgumentException("El título es obligatorio");
+            }
+            this.title = title;
+            this.description = description != null ? description : "";
+            this.dueDate = dueDate;
+            this.createdDate = createdDate;
+            this.completed = completed;
+        }
+    }
+
+    /**
+     * Error de una fila: línea del archivo en la que empieza y motivo.
+     */
+    public static final class RowError {
+        private final int line;
+        private final String message;
+
+        RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "línea " + line + ": " + message;
+        }
+    }
+
+    /**
+     * Resultado de una importación: tareas agregadas y filas con errores
+     * (con detalle solo de las primeras).
+     */
+    public static final class Result {
+        private int importedCount;
+        private int errorCount;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void addError(RowError error) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        // Las primeras filas con errores, en el orden del archivo
+        public List<RowError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return importedCount + " tareas importadas, " + errorCount + " filas con errores";
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package gestortareas;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Diario de cambios (write-ahead log) de las tareas.
+ *
+ * En lugar de reescribir todo tasks.dat en cada cambio, cada operación agrega
+ * un registro pequeño al final del diario. Al cargar, el diario se reproduce
+ * sobre la última instantánea y, cada cierto número de registros, el
+ * TaskManager compacta todo en una nueva instantánea.
+ *
+ * El diario lleva en su cabecera la generación de la instantánea a la que
+ * pertenece, así un diario ya incorporado no se vuelve a aplicar si la
+ * aplicación se cierra a mitad de una compactación. Los registros usan la
+ * misma codificación que TaskCodec.
+ *
+ * Los registros se acumulan en memoria y flush() los escribe en el archivo
+ * con una sola escritura, de modo que varios cambios seguidos pueden
+ * guardarse juntos desde otro hilo. Es seguro registrar desde un hilo y
+ * escribir desde otro.
+ *
+ * Los registros identifican la tarea por su id, no por su posición.
+ *
+ * Un registro incompleto o ilegible al final (cierre a mitad de escritura)
+ * se descarta al reproducir y el archivo se recorta hasta el último registro
+ * completo, así las escrituras siguientes nunca quedan detrás de basura.
+ */
+public class TaskJournal {
+    private static final int MAGIC = 0x544D4A32; // "TMJ2"
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_COMPLETE = 3;
+    private static final byte OP_PENDING = 4;
+    private static final byte OP_REMOVE = 5;
+    private static final byte OP_CLEAR_COMPLETED = 6;
+
+    private final File file;
+    // Registros ya escritos en el archivo
+    private int recordCount;
+    // Fin del último registro completo: flush() escribe a partir de ahí
+    // (-1 mientras no se ha leído ni reiniciado el archivo: al final)
+    private long validLength = -1;
+    // Bytes descartados al final del archivo en la última reproducción
+    private long discardedBytes;
+    private String discardReason;
+
+    // Registros pendientes de escribir
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private DataOutputStream pendingOut = new DataOutputStream(pending);
+    private int pendingCount;
+
+    public TaskJournal(String filename) {
+        this.file = new File(filename);
+    }
+
+    // Registrar operaciones (en memoria hasta el próximo flush)
+    public synchronized void appendAdd(Task task) throws IOException {
+        pendingOut.writeByte(OP_ADD);
+        TaskCodec.writeTask(pendingOut, task);
+        pendingCount++;
+    }
+
+    public synchronized void appendUpdate(Task task) throws IOException {
+        pendingOut.writeByte(OP_UPDATE);
+        pendingOut.writeLong(task.getId());
+        TaskCodec.writeString(pendingOut, task.getTitle());
+        TaskCodec.writeString(pendingOut, task.getDescription());
+        TaskCodec.writeDate(pendingOut, task.getDueDate());
+        pendingCount++;
+    }
+
+    public void appendCompleted(long id) throws IOException {
+        appendIdOp(OP_COMPLETE, id);
+    }
+
+    public void appendPending(long id) throws IOException {
+        appendIdOp(OP_PENDING, id);
+    }
+
+    public void appendRemove(long id) throws IOException {
+        appendIdOp(OP_REMOVE, id);
+    }
+
+    public synchronized void appendClearCompleted() throws IOException {
+        pendingOut.writeByte(OP_CLEAR_COMPLETED);
+        pendingCount++;
+    }
+
+    // Escribir los registros pendientes en el archivo con una sola escritura;
+    // devuelve los bytes escritos. Si falla, los registros se conservan para
+    // el siguiente intento.
+    public int flush() throws IOException {
+        byte[] bytes;
+        int count;
+        synchronized (this) {
+            if (pendingCount == 0) {
+                return 0;
+            }
+            bytes = pending.toByteArray();
+            count = pendingCount;
+            pending = new ByteArrayOutputStream();
+            pendingOut = new DataOutputStream(pending);
+            pendingCount = 0;
+        }
+
+        long start;
+        synchronized (this) {
+            start = validLength;
+        }
+        long end;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+            end = start >= 0 ? start : channel.size();
+            // Lo que haya tras el último registro completo (un intento de
+            // escritura fallido) se sobrescribe
+            if (channel.size() > end) {
+                channel.truncate(end);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                end += channel.write(buffer, end);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                byte[] newer = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+                pending.write(bytes);
+                pending.write(newer);
+                pendingOut = new DataOutputStream(pending);
+                pendingCount += count;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            recordCount += count;
+            validLength = end;
+        }
+        return bytes.length;
+    }
+
+    // Reproducir el diario sobre las tareas de la instantánea indicada.
+    // Devuelve false si no hay diario válido para esa generación.
+    // Los registros se aplican todos juntos al final: si la lectura falla,
+    // la lista queda como estaba. Un final incompleto o ilegible se descarta
+    // (ver getDiscardedBytes()) y se recorta del archivo.
+    public synchronized boolean replay(List<Task> tasks, int generation) throws IOException {
+        recordCount = 0;
+        validLength = -1;
+        discardedBytes = 0;
+        discardReason = null;
+        if (!file.exists()) {
+            return false;
+        }
+
+        long fileLength = file.length();
+        long end;
+        int count = 0;
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try (DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC || in.readInt() != generation) {
+                // Diario de otro formato o ya incluido en la instantánea
+                return false;
+            }
+            end = counter.count;
+            // Última versión de cada tarea viva; las tareas son inmutables, así que
+            // cada cambio deja aquí una copia nueva
+            Map<Long, Task> byId = new HashMap<>();
+            for (Task task : tasks) {
+                byId.put(task.getId(), task);
+            }
+            List<Task> added = new ArrayList<>();
+            boolean modified = false;
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    modified |= applyRecord(in, op, added, byId);
+                } catch (EOFException e) {
+                    // Registro incompleto al final (cierre inesperado): se descarta
+                    discardReason = "registro incompleto";
+                    break;
+                } catch (IOException | RuntimeException e) {
+                    if (counter.failed) {
+                        // Error al leer el archivo, no un registro dañado
+                        throw e;
+                    }
+                    discardReason = e.getMessage();
+                    break;
+                }
+                end = counter.count;
+                count++;
+            }
+            // Las altas, los cambios y las bajas se aplican juntos al final, en
+            // una sola pasada: cada tarea se sustituye por su última versión
+            tasks.addAll(added);
+            if (modified) {
+                tasks.replaceAll(task -> byId.get(task.getId()));
+                tasks.removeIf(Objects::isNull);
+            }
+        } catch (EOFException e) {
+            // Diario sin cabecera completa: no hay nada que aplicar
+            return false;
+        }
+        recordCount = count;
+        validLength = end;
+        if (fileLength > end) {
+            discardedBytes = fileLength - end;
+            if (discardReason == null) {
+                discardReason = "registro incompleto";
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        return true;
+    }
+
+    // Vaciar el diario tras escribir una nueva instantánea
+    // (los registros pendientes en memoria se escribirán en el nuevo diario)
+    public synchronized void reset(int generation) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(generation);
+        }
+        recordCount = 0;
+        validLength = 2 * Integer.BYTES;
+    }
+
+    // Descartar los registros pendientes (ya incluidos en una instantánea)
+    public synchronized void clearPending() {
+        pending = new ByteArrayOutputStream();
+        pendingOut = new DataOutputStream(pending);
+        pendingCount = 0;
+    }
+
+    // Registros escritos en el archivo desde la última instantánea
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    // Bytes ilegibles descartados al final en la última reproducción (0 si ninguno)
+    public synchronized long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    // Motivo del descarte: registro incompleto o el error del registro dañado
+    public synchronized String getDiscardReason() {
+        return discardReason;
+    }
+
+    public synchronized boolean hasPendingRecords() {
+        return pendingCount > 0;
+    }
+
+    // Aplicar un registro sobre el mapa de versiones; devuelve true si la
+    // lista tendrá que actualizarse al final (cambios o bajas)
+    private boolean applyRecord(DataInputStream in, byte op, List<Task> added, Map<Long, Task> byId)
+            throws IOException {
+        switch (op) {
+            case OP_ADD: {
+                Task task = TaskCodec.readTask(in);
+                added.add(task);
+                byId.put(task.getId(), task);
+                return false;
+            }
+            case OP_UPDATE: {
+                long id = in.readLong();
+                String title = TaskCodec.readString(in);
+                String description = TaskCodec.readString(in);
+                LocalDate dueDate = TaskCodec.readDate(in);
+                byId.put(id, find(byId, id).withDetails(title, description, dueDate));
+                return true;
+            }
+            case OP_COMPLETE: {
+                long id = in.readLong();
+                byId.put(id, find(byId, id).withCompleted(true));
+                return true;
+            }
+            case OP_PENDING: {
+                long id = in.readLong();
+                byId.put(id, find(byId, id).withCompleted(false));
+                return true;
+            }
+            case OP_REMOVE: {
+                long id = in.readLong();
+                find(byId, id);
+                byId.remove(id);
+                return true;
+            }
+            case OP_CLEAR_COMPLETED:
+                byId.values().removeIf(Task::isCompleted);
+                return true;
+            default:
+                throw new IOException("Registro de diario desconocido: " + op);
+        }
+    }
+
+    private static Task find(Map<Long, Task> byId, long id) throws IOException {
+        Task task = byId.get(id);
+        if (task == null) {
+            throw new IOException("El diario hace referencia a una tarea inexistente: " + id);
+        }
+        return task;
+    }
+
+    private synchronized void appendIdOp(byte op, long id) throws IOException {
+        pendingOut.writeByte(op);
+        pendingOut.writeLong(id);
+        pendingCount++;
+    }
+
+    // Cuenta los bytes leídos, para saber dónde termina el último registro
+    // completo, y distingue los errores del archivo de los registros dañados
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+        boolean failed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = in.read();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = in.read(buffer, offset, length);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Codificación JSON mínima de las tareas, sin dependencias externas.
+ *
+ * Una tarea se escribe como un objeto plano con id, title, description,
+ * dueDate y createdDate (ISO-8601, o null) y completed. La lectura solo
+ * admite objetos planos (textos, números, booleanos y null), que es todo lo
+ * que necesitan la API HTTP y la exportación.
+ */
+public final class TaskJson {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TaskJson() {
+    }
+
+    // Escritura de una tarea como objeto JSON
+    public static void writeTask(Appendable out, Task task) throws IOException {
+        out.append("{\"id\":").append(Long.toString(task.getId()));
+        out.append(",\"title\":");
+        writeString(out, task.getTitle());
+        out.append(",\"description\":");
+        writeString(out, task.getDescription());
+        out.append(",\"dueDate\":");
+        writeString(out, task.getDueDate() != null ? task.getDueDate().toString() : null);
+        out.append(",\"createdDate\":");
+        writeString(out, task.getCreatedDate().toString());
+        out.append(",\"completed\":").append(task.isCompleted() ? "true" : "false");
+        out.append('}');
+    }
+
+    public static String toJson(Task task) {
+        StringBuilder sb = new StringBuilder(128);
+        appendTask(sb, task);
+        return sb.toString();
+    }
+
+    // Variante sin IOException para StringBuilder
+    public static void appendTask(StringBuilder sb, Task task) {
+        try {
+            writeTask(sb, task);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Texto JSON entre comillas, o null
+    public static void writeString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            appendRange(out, value, start, i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    break;
+            }
+            start = i + 1;
+        }
+        appendRange(out, value, start, value.length());
+        out.append('"');
+    }
+
+    // Un Writer escribe el tramo sin crear una subcadena (Appendable.append sí la crea)
+    private static void appendRange(Appendable out, String value, int start, int end) throws IOException {
+        if (out instanceof Writer) {
+            ((Writer) out).write(value, start, end - start);
+        } else {
+            out.append(value, start, end);
+        }
+    }
+
+    // Lectura de un objeto plano: los valores quedan como String, Boolean,
+    // Long, Double o null. Lanza IllegalArgumentException si el JSON no es válido.
+    public static Map<String, Object> parseObject(String json) {
+        Parser parser = new Parser(json);
+        Map<String, Object> result = parser.readObject();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("contenido después del objeto");
+        }
+        return result;
+    }
+
+    // Fecha ISO-8601 opcional de un objeto leído con parseObject
+    public static LocalDate getDate(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("El campo " + field + " debe ser una fecha (yyyy-mm-dd)");
+        }
+        try {
+            return LocalDate.parse((String) value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida en " + field + ": " + value);
+        }
+    }
+
+    // Texto opcional de un objeto leído con parseObject
+    public static String getString(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("El campo " + field + " debe ser un texto");
+        }
+        return (String) value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> readObject() {
+            skipWhitespace();
+            expect('{');
+            Map<String, Object> object = new LinkedHashMap<>();
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                object.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw error("se esperaba ',' o '}'");
+                }
+            }
+        }
+
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (text.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return readNumber();
+            }
+            throw error("valor no admitido");
+        }
+
+        private Object readNumber() {
+            int start = position;
+            boolean decimal = false;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                position++;
+            }
+            String number = text.substring(start, position);
+            try {
+                return decimal ? (Object) Double.valueOf(number) : (Object) Long.valueOf(number);
+            } catch (NumberFormatException e) {
+                throw error("número no válido");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = null;
+            int start = position;
+            while (true) {
+                if (position >= text.length()) {
+                    throw error("texto sin cerrar");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    if (sb == null) {
+                        return text.substring(start, position - 1);
+                    }
+                    return sb.append(text, start, position - 1).toString();
+                }
+                if (c != '\\') {
+                    continue;
+                }
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(text, start, position - 1);
+                char escaped = next();
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("escape \\u incompleto");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("escape \\u no válido");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        // \" \\ \/
+                        sb.append(escaped);
+                        break;
+                }
+                start = position;
+            }
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean atEnd() {
+            return position >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw error("fin inesperado");
+            }
+            return text.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("se esperaba '" + expected + "'");
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("JSON no válido (posición " + position + "): " + message);
+        }
+    }
+}
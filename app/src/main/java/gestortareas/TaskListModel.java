@@ -0,0 +1,100 @@
+package gestortareas;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Modelo de la lista de tareas de la interfaz.
+ *
+ * Trabaja directamente sobre el resultado de una consulta del TaskManager en
+ * lugar de copiar las tareas una a una como DefaultListModel: un cambio de
+ * vista completo avisa a la JList con un solo evento, y los cambios de una
+ * tarea (editar, quitar, agregar) con eventos de una sola fila.
+ *
+ * Las tareas mostradas están en el orden de la consulta, que es total (los
+ * empates se resuelven por id): una tarea se localiza por búsqueda binaria.
+ */
+public class TaskListModel extends AbstractListModel<Task> {
+    private static final long serialVersionUID = 1L;
+
+    private List<Task> tasks = new ArrayList<>();
+
+    @Override
+    public int getSize() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task getElementAt(int index) {
+        return tasks.get(index);
+    }
+
+    // Reemplazar todas las tareas mostradas; el modelo se queda con la lista
+    public void setTasks(List<Task> newTasks) {
+        int oldSize = tasks.size();
+        tasks = newTasks;
+        int newSize = tasks.size();
+
+        // Las filas que sobran o faltan se avisan aparte para que la
+        // selección se ajuste; el resto es un único cambio de contenido
+        if (newSize < oldSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        } else if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+        int common = Math.min(oldSize, newSize);
+        if (common > 0) {
+            fireContentsChanged(this, 0, common - 1);
+        }
+    }
+
+    // Sustituir una tarea mostrada por su nueva versión (estado, título, fecha...)
+    public void setTask(int index, Task task) {
+        tasks.set(index, task);
+        fireContentsChanged(this, index, index);
+    }
+
+    // Quitar una tarea de la vista
+    public void removeTask(int index) {
+        tasks.remove(index);
+        fireIntervalRemoved(this, index, index);
+    }
+
+    // Agregar varias tareas al final de la vista (un bloque de resultados)
+    public void addTasks(List<Task> newTasks) {
+        if (newTasks.isEmpty()) {
+            return;
+        }
+        int first = tasks.size();
+        tasks.addAll(newTasks);
+        fireIntervalAdded(this, first, tasks.size() - 1);
+    }
+
+    // Agregar una tarea al final de la vista
+    public void addTask(Task task) {
+        tasks.add(task);
+        fireIntervalAdded(this, tasks.size() - 1, tasks.size() - 1);
+    }
+
+    // Fila de una tarea en la vista ordenada según "order" (por su versión
+    // mostrada), o -1 si no está
+    public int indexOf(Task task, Comparator<? super Task> order) {
+        int index = Collections.binarySearch(tasks, task, order);
+        return index >= 0 && tasks.get(index).getId() == task.getId() ? index : -1;
+    }
+
+    // Insertar una tarea en su sitio de la vista ordenada según "order"
+    public void insertTask(Task task, Comparator<? super Task> order) {
+        int index = Collections.binarySearch(tasks, task, order);
+        if (index >= 0) {
+            setTask(index, task);
+            return;
+        }
+        index = -index - 1;
+        tasks.add(index, task);
+        fireIntervalAdded(this, index, index);
+    }
+}
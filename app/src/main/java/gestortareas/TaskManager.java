@@ -0,0 +1,1158 @@
+package gestortareas;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gestor de tareas seguro para usar desde varios hilos.
+ *
+ * Las modificaciones se serializan con el bloqueo de escritura de un
+ * StampedLock. Las consultas de contadores usan lecturas optimistas y la
+ * búsqueda por id no bloquea (mapa concurrente); el resto de consultas
+ * comparten el bloqueo de lectura. Las tareas son inmutables: cada cambio
+ * sustituye la tarea por una copia nueva, que se puede entregar a otros
+ * hilos sin sincronización.
+ *
+ * Guardar, cargar, buscar, filtrar y exportar dejan su latencia en
+ * TaskMetrics (consultable con getMetrics() o por JMX) y emiten eventos JFR
+ * (TaskEvents).
+ *
+ * Los cambios se avisan a los TaskChangeListener registrados con
+ * addChangeListener(), un aviso por operación (un lote da un solo aviso).
+ */
+public class TaskManager implements TaskManagerMXBean {
+    private List<Task> tasks;
+    private static final String DATA_FILE = "tasks.dat";
+    private static final String JOURNAL_FILE = "tasks.journal";
+    private static final String MAPPED_INDEX_FILE = "tasks.idx";
+    private static final String MAPPED_HEAP_FILE = "tasks.heap";
+    private static final String PARTITIONED_DIRECTORY = "tasks.parts";
+    // Propiedad del sistema para elegir el almacenamiento: "journal" (por defecto), "mapped" o "partitioned"
+    public static final String STORAGE_PROPERTY = "taskmanager.storage";
+    // Ventana (ms) para agrupar escrituras en segundo plano; 0 = guardar en el momento
+    public static final String FLUSH_WINDOW_PROPERTY = "taskmanager.flushWindowMs";
+    private static final long DEFAULT_FLUSH_WINDOW_MILLIS = 200;
+    // Memoria (MB) para las descripciones leídas de tasks.dat bajo demanda
+    public static final String DESCRIPTION_CACHE_PROPERTY = "taskmanager.descriptionCacheMb";
+    private static final int EXPORT_BUFFER_SIZE = 1 << 16;
+    // Eliminadas que pueden quedar en la lista antes de limpiarla sin esperar a una lectura
+    private static final int MIN_REMOVED_TO_PURGE = 1024;
+    public static final String MBEAN_NAME = "gestortareas:type=TaskManager";
+
+    private final TaskStore store;
+    private final StampedLock lock = new StampedLock();
+    // Tareas por identificador; la lista queda ordenada por id porque cada alta recibe el siguiente.
+    // Con el almacenamiento mapeado queda vacío: las tareas se buscan en el
+    // archivo por id (mappedTasks) para no tenerlas todas en el heap.
+    private final Map<Long, Task> tasksById = new ConcurrentHashMap<>();
+    private MappedTaskList mappedTasks;
+    // Tareas eliminadas que siguen en la lista: eliminar una solo la quita de
+    // tasksById (o la marca como borrada en el archivo mapeado) y la lista se
+    // limpia de una pasada en purgeRemoved(), antes de que alguien la recorra
+    private int removedInList;
+    // Lote en curso (con el bloqueo de escritura), o null
+    private Batch openBatch;
+    // Hilo que ejecuta el lote en curso: el StampedLock no es reentrante y
+    // ese hilo ya tiene el bloqueo de escritura
+    private volatile Thread batchOwner;
+    private long nextId = 1;
+    // Índice de trigramas de los títulos; se construye en la primera búsqueda
+    private TitleIndex titleIndex;
+    // Índice de palabras del título y la descripción; se construye en la primera búsqueda por relevancia
+    private FullTextIndex fullTextIndex;
+    // Contadores para las estadísticas
+    private final TaskCounters counters = new TaskCounters();
+    // Tareas pendientes por fecha límite (vencidas y rangos de fechas)
+    private final DueDateIndex dueDateIndex = new DueDateIndex(this::lookup);
+    // Latencias y contadores (ver también TaskEvents para JFR)
+    private final TaskMetrics metrics = new TaskMetrics();
+    private ObjectName mbeanName;
+    // Oyentes de cambios; los cambios de la operación en curso se juntan en
+    // pendingChanges y su aviso espera en changeEvents a que se suelte el bloqueo
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final PendingChanges pendingChanges = new PendingChanges();
+    private final Queue<TaskChangeEvent> changeEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean deliveringChanges = new AtomicBoolean();
+
+    public TaskManager() {
+        this(createDefaultStore());
+    }
+
+    public TaskManager(TaskStore store) {
+        this.store = store;
+        store.setErrorListener(this::storageError);
+        tasks = new ArrayList<>();
+        loadTasks();
+    }
+
+    private static TaskStore createDefaultStore() {
+        if ("mapped".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+            return new MappedTaskStore(MAPPED_INDEX_FILE, MAPPED_HEAP_FILE, DATA_FILE, JOURNAL_FILE);
+        }
+        long flushWindow = Long.getLong(FLUSH_WINDOW_PROPERTY, DEFAULT_FLUSH_WINDOW_MILLIS);
+        long cacheBytes = Long.getLong(DESCRIPTION_CACHE_PROPERTY, DescriptionCache.DEFAULT_MAX_BYTES >> 20) << 20;
+        if ("partitioned".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+            return new PartitionedTaskStore(PARTITIONED_DIRECTORY, DATA_FILE, JOURNAL_FILE, flushWindow, cacheBytes);
+        }
+        return new JournaledTaskStore(DATA_FILE, JOURNAL_FILE, flushWindow, cacheBytes);
+    }
+
+    // Agregar nueva tarea
+    public Task addTask(String title, String description, LocalDate dueDate) {
+        long stamp = writeLock();
+        try {
+            return add(title, description, dueDate);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public Task addTask(String title, String description) {
+        return addTask(title, description, null);
+    }
+
+    // Eliminar tarea
+    public boolean removeTaskById(long id) {
+        long stamp = writeLock();
+        try {
+            return remove(id);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public boolean removeTask(Task task) {
+        return task != null && removeTaskById(task.getId());
+    }
+
+    public boolean removeTask(int index) {
+        Task task = getTask(index);
+        return task != null && removeTaskById(task.getId());
+    }
+
+    // Marcar tarea como completada; devuelve la nueva versión (null si no existe)
+    public Task markTaskAsCompletedById(long id) {
+        return setCompletedById(id, true);
+    }
+
+    public void markTaskAsCompleted(Task task) {
+        if (task != null) {
+            markTaskAsCompletedById(task.getId());
+        }
+    }
+
+    public void markTaskAsCompleted(int index) {
+        Task task = getTask(index);
+        if (task != null) {
+            markTaskAsCompletedById(task.getId());
+        }
+    }
+
+    // Marcar tarea como pendiente; devuelve la nueva versión (null si no existe)
+    public Task markTaskAsPendingById(long id) {
+        return setCompletedById(id, false);
+    }
+
+    public void markTaskAsPending(Task task) {
+        if (task != null) {
+            markTaskAsPendingById(task.getId());
+        }
+    }
+
+    public void markTaskAsPending(int index) {
+        Task task = getTask(index);
+        if (task != null) {
+            markTaskAsPendingById(task.getId());
+        }
+    }
+
+    private Task setCompletedById(long id, boolean completed) {
+        long stamp = writeLock();
+        try {
+            return setCompleted(id, completed);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    // Obtener todas las tareas
+    public List<Task> getAllTasks() {
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = purgeRemoved(stamp);
+            return filtered("all", event, start, new ArrayList<>(tasks));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Obtener tareas pendientes
+    public List<Task> getPendingTasks() {
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = purgeRemoved(stamp);
+            return filtered("pending", event, start, tasks.stream()
+                    .filter(task -> !task.isCompleted())
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Obtener tareas completadas
+    public List<Task> getCompletedTasks() {
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = purgeRemoved(stamp);
+            return filtered("completed", event, start, tasks.stream()
+                    .filter(Task::isCompleted)
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Obtener tareas vencidas (ordenadas por fecha límite)
+    public List<Task> getOverdueTasks() {
+        refreshDueDates();
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            return filtered("overdue", event, start, dueDateIndex.getOverdue());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Tareas pendientes que vencen desde hoy hasta dentro de N días (ninguna si N < 0)
+    public List<Task> getTasksDueWithin(int days) {
+        refreshDueDates();
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            return filtered("dueWithin", event, start, dueDateIndex.getDueWithin(days));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Tareas pendientes que vencen entre dos fechas (ambas incluidas; null =
+    // sin límite por ese lado, y ninguna si el rango está invertido)
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            return filtered("dueBetween", event, start, dueDateIndex.getDueBetween(from, to));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Buscar tareas por título (índice de trigramas)
+    public List<Task> searchTasksByTitle(String keyword) {
+        TaskEvents.Search event = new TaskEvents.Search();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = buildTitleIndex(stamp);
+            List<Task> results = titleIndex.search(keyword);
+            metrics.record(TaskMetrics.Operation.SEARCH, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.keyword = keyword;
+                event.resultCount = results.size();
+                event.commit();
+            }
+            return results;
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Búsqueda por relevancia en el título y la descripción: las tareas del
+     * estado pedido que mejor puntúan para las palabras buscadas, de más a
+     * menos relevante (ver TextSearch y FullTextIndex).
+     */
+    public List<Task> searchTasks(TextSearch search) {
+        refreshDueDates();
+        TaskEvents.Search event = new TaskEvents.Search();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = buildFullTextIndex(stamp);
+            TaskQuery status = TaskQuery.all().withStatus(search.getStatus());
+            long today = LocalDate.now().toEpochDay();
+            List<Task> results = fullTextIndex.search(search.getText(), search.getLimit(), search.usesPrefixes(),
+                    search.isTypoTolerant(), task -> status.matches(task, today));
+            metrics.record(TaskMetrics.Operation.SEARCH, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.keyword = search.getText();
+                event.resultCount = results.size();
+                event.commit();
+            }
+            return results;
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Consulta combinada (estado, texto, fechas), ordenada y paginada. Los
+     * candidatos salen del índice más selectivo y solo se copia la página
+     * pedida (ver TaskQueryPlanner).
+     */
+    public TaskPage query(TaskQuery query) {
+        refreshDueDates();
+        TaskEvents.Filter event = new TaskEvents.Filter();
+        event.begin();
+        long start = metrics.start();
+        long stamp = readLock();
+        try {
+            stamp = purgeRemoved(stamp);
+            if (TaskQueryPlanner.usesTitleIndex(query)) {
+                stamp = buildTitleIndex(stamp);
+            }
+            TaskQueryPlanner planner = new TaskQueryPlanner(query, tasks, titleIndex, dueDateIndex);
+            TaskPage page = planner.execute();
+            filtered("query:" + planner.getSource(), event, start, page.getTasks());
+            return page;
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    // Construir el índice de títulos en la primera búsqueda, con acceso exclusivo.
+    // Recibe el sello del bloqueo de lectura y devuelve el que queda tomado.
+    private long buildTitleIndex(long stamp) {
+        if (titleIndex != null) {
+            return stamp;
+        }
+        long writeStamp = toWriteLock(stamp);
+        if (titleIndex == null) {
+            purgeRemoved();
+            TitleIndex index = new TitleIndex(this::lookup);
+            for (Task task : tasks) {
+                index.add(task);
+            }
+            titleIndex = index;
+        }
+        return writeStamp;
+    }
+
+    // Igual con el índice de palabras; lee todas las descripciones una vez
+    private long buildFullTextIndex(long stamp) {
+        if (fullTextIndex != null) {
+            return stamp;
+        }
+        long writeStamp = toWriteLock(stamp);
+        if (fullTextIndex == null) {
+            purgeRemoved();
+            FullTextIndex index = new FullTextIndex(this::lookup);
+            for (Task task : tasks) {
+                index.add(task);
+            }
+            fullTextIndex = index;
+        }
+        return writeStamp;
+    }
+
+    // Limpiar la lista de tareas eliminadas antes de recorrerla: con acceso
+    // exclusivo solo durante la pasada; devuelve de nuevo un bloqueo de lectura
+    private long purgeRemoved(long stamp) {
+        if (removedInList == 0) {
+            return stamp;
+        }
+        long writeStamp = toWriteLock(stamp);
+        purgeRemoved();
+        return lock.tryConvertToReadLock(writeStamp);
+    }
+
+    // Con el bloqueo de escritura: una pasada para quitar todas las eliminadas
+    private void purgeRemoved() {
+        if (removedInList == 0) {
+            return;
+        }
+        if (mappedTasks != null) {
+            mappedTasks.removeDeleted();
+        } else {
+            tasks.removeIf(task -> !tasksById.containsKey(task.getId()));
+        }
+        removedInList = 0;
+    }
+
+    private long toWriteLock(long readStamp) {
+        long writeStamp = lock.tryConvertToWriteLock(readStamp);
+        if (writeStamp == 0) {
+            lock.unlockRead(readStamp);
+            writeStamp = lock.writeLock();
+        }
+        return writeStamp;
+    }
+
+    // Estadísticas (contadores mantenidos en cada cambio, con lectura optimista)
+    public int getTotalTasksCount() {
+        long stamp = lock.tryOptimisticRead();
+        int total = counters.getTotal();
+        if (!lock.validate(stamp)) {
+            stamp = readLock();
+            try {
+                total = counters.getTotal();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return total;
+    }
+
+    public int getPendingTasksCount() {
+        long stamp = lock.tryOptimisticRead();
+        int pending = counters.getPending();
+        if (!lock.validate(stamp)) {
+            stamp = readLock();
+            try {
+                pending = counters.getPending();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return pending;
+    }
+
+    public int getCompletedTasksCount() {
+        long stamp = lock.tryOptimisticRead();
+        int completed = counters.getCompleted();
+        if (!lock.validate(stamp)) {
+            stamp = readLock();
+            try {
+                completed = counters.getCompleted();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return completed;
+    }
+
+    public int getOverdueTasksCount() {
+        refreshDueDates();
+        long stamp = lock.tryOptimisticRead();
+        int overdue = dueDateIndex.getOverdueCount();
+        if (!lock.validate(stamp)) {
+            stamp = readLock();
+            try {
+                overdue = dueDateIndex.getOverdueCount();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return overdue;
+    }
+
+    // Obtener tarea por identificador (sin bloqueo, salvo en el almacenamiento mapeado)
+    public Task getTaskById(long id) {
+        checkNotInBatch();
+        if (mappedTasks == null) {
+            return tasksById.get(id);
+        }
+        long stamp = readLock();
+        try {
+            return mappedTasks.findById(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Obtener tarea por índice
+    public Task getTask(int index) {
+        long stamp = readLock();
+        try {
+            stamp = purgeRemoved(stamp);
+            if (index >= 0 && index < tasks.size()) {
+                return tasks.get(index);
+            }
+            return null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Actualizar tarea; devuelve la nueva versión (null si no existe)
+    public Task updateTaskById(long id, String title, String description, LocalDate dueDate) {
+        long stamp = writeLock();
+        try {
+            return update(id, title, description, dueDate);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    public void updateTask(int index, String title, String description, LocalDate dueDate) {
+        Task task = getTask(index);
+        if (task != null) {
+            updateTaskById(task.getId(), title, description, dueDate);
+        }
+    }
+
+    /**
+     * Aplica varios cambios como una sola operación: se toma el bloqueo de
+     * escritura una vez, las tareas eliminadas se quitan de la lista de una
+     * pasada (como en removeTaskById()) y el almacenamiento guarda todos los
+     * cambios juntos.
+     * Los lectores no ven estados intermedios del lote.
+     *
+     * Dentro de la función solo se usan los métodos del Batch: el hilo del
+     * lote ya tiene el bloqueo de escritura, que no es reentrante, así que
+     * cualquier otro método del gestor lanza IllegalStateException en lugar
+     * de quedarse esperando para siempre.
+     *
+     * No hay vuelta atrás: si la función lanza una excepción, los cambios ya
+     * aplicados se conservan y se guardan. Los oyentes reciben un único aviso
+     * BULK_CHANGED con el resultado neto del lote.
+     */
+    public void batch(Consumer<Batch> changes) {
+        long start = metrics.start();
+        long stamp = writeLock();
+        batchOwner = Thread.currentThread();
+        try {
+            pendingChanges.bulk = true;
+            store.beginBatch();
+            Batch batch = new Batch();
+            openBatch = batch;
+            try {
+                changes.accept(batch);
+            } finally {
+                batch.closed = true;
+                openBatch = null;
+                try {
+                    purgeRemoved();
+                } finally {
+                    store.endBatch();
+                }
+            }
+        } finally {
+            // Aunque falle el cierre del lote se avisa de lo aplicado y se suelta el bloqueo
+            batchOwner = null;
+            unlockWrite(stamp);
+            metrics.record(TaskMetrics.Operation.BATCH, start);
+        }
+    }
+
+    /**
+     * Cambios de un lote de batch(). Solo es válido dentro de la función que
+     * lo recibe; los métodos devuelven lo mismo que sus equivalentes del gestor.
+     */
+    public final class Batch {
+        private boolean closed;
+
+        private Batch() {
+        }
+
+        // Tarea actual con ese id (null si no existe o ya se eliminó en el lote)
+        public Task get(long id) {
+            checkOpen();
+            return lookup(id);
+        }
+
+        public Task add(String title, String description, LocalDate dueDate) {
+            checkOpen();
+            return TaskManager.this.add(title, description, dueDate);
+        }
+
+        // Alta con fecha de creación y estado propios (importación); recibe un id nuevo
+        public Task add(String title, String description, LocalDate dueDate, LocalDate createdDate,
+                boolean completed) {
+            checkOpen();
+            return TaskManager.this.add(title, description, dueDate, createdDate, completed);
+        }
+
+        public Task complete(long id) {
+            checkOpen();
+            return setCompleted(id, true);
+        }
+
+        public Task reopen(long id) {
+            checkOpen();
+            return setCompleted(id, false);
+        }
+
+        public Task update(long id, String title, String description, LocalDate dueDate) {
+            checkOpen();
+            return TaskManager.this.update(id, title, description, dueDate);
+        }
+
+        public boolean remove(long id) {
+            checkOpen();
+            return TaskManager.this.remove(id);
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("El lote ya terminó");
+            }
+        }
+    }
+
+    // Cambios sin bloqueo: quien llama ya tiene el bloqueo de escritura
+    private Task add(String title, String description, LocalDate dueDate) {
+        return add(title, description, dueDate, LocalDate.now(), false);
+    }
+
+    private Task add(String title, String description, LocalDate dueDate, LocalDate createdDate, boolean completed) {
+        Task newTask = new Task(nextId++, title, description, dueDate, createdDate, completed);
+        tasks.add(newTask);
+        store.taskAdded(newTask);
+        indexAdded(newTask);
+        recordChange(null, newTask);
+        metrics.increment(TaskMetrics.Counter.TASKS_ADDED);
+        return newTask;
+    }
+
+    private Task setCompleted(long id, boolean completed) {
+        Task task = lookup(id);
+        if (task == null) {
+            return null;
+        }
+        Task updated = task.withCompleted(completed);
+        if (updated != task) {
+            replace(task, updated);
+            store.taskStatusChanged(updated);
+            recordChange(task, updated);
+            metrics.increment(TaskMetrics.Counter.STATUS_CHANGES);
+        }
+        return updated;
+    }
+
+    private Task update(long id, String title, String description, LocalDate dueDate) {
+        Task task = lookup(id);
+        if (task == null) {
+            return null;
+        }
+        Task updated = task.withDetails(title, description, dueDate);
+        replace(task, updated);
+        store.taskUpdated(updated);
+        recordChange(task, updated);
+        metrics.increment(TaskMetrics.Counter.TASKS_UPDATED);
+        return updated;
+    }
+
+    // Eliminar sin desplazar la lista: la tarea deja de estar en tasksById
+    // (o queda marcada en el archivo mapeado) y se quita de la lista en la
+    // siguiente purgeRemoved(). Si se acumulan muchas, se limpia ya.
+    private boolean remove(long id) {
+        Task task = lookup(id);
+        if (task == null) {
+            return false;
+        }
+        if (mappedTasks != null) {
+            mappedTasks.delete(positionOf(task));
+        }
+        removedInList++;
+        removed(task);
+        if (removedInList > Math.max(MIN_REMOVED_TO_PURGE, tasks.size() / 4)) {
+            purgeRemoved();
+        }
+        return true;
+    }
+
+    private void removed(Task task) {
+        store.taskRemoved(task);
+        indexRemoved(task);
+        recordChange(task, null);
+        metrics.increment(TaskMetrics.Counter.TASKS_REMOVED);
+    }
+
+    // Persistencia - Guardar tareas
+    private void saveTasks() {
+        long stamp = writeLock();
+        try {
+            save();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Guardar con el bloqueo de escritura ya tomado
+    private void save() {
+        TaskEvents.Save event = new TaskEvents.Save();
+        event.begin();
+        long start = metrics.start();
+        long bytesBefore = store.getBytesWritten();
+        store.save();
+        metrics.record(TaskMetrics.Operation.SAVE, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.taskCount = counters.getTotal();
+            event.bytesWritten = store.getBytesWritten() - bytesBefore;
+            event.commit();
+        }
+    }
+
+    // Persistencia - Cargar tareas (en el constructor, antes de publicar el gestor)
+    private void loadTasks() {
+        TaskEvents.Load event = new TaskEvents.Load();
+        event.begin();
+        long start = metrics.start();
+        tasks = store.load();
+        mappedTasks = tasks instanceof MappedTaskList ? (MappedTaskList) tasks : null;
+        counters.clear();
+        dueDateIndex.clear();
+        tasksById.clear();
+        removedInList = 0;
+        nextId = 1;
+        if (mappedTasks != null) {
+            // Los contadores y las fechas límite salen de los campos fijos de
+            // cada registro, sin crear las tareas ni leer sus textos
+            mappedTasks.forEachRecord((id, completed, hasDueDate, dueDay) -> {
+                nextId = Math.max(nextId, id + 1);
+                counters.add(completed);
+                if (!completed && hasDueDate) {
+                    dueDateIndex.add(id, dueDay);
+                }
+            });
+        } else {
+            for (Task task : tasks) {
+                tasksById.put(task.getId(), task);
+                nextId = Math.max(nextId, task.getId() + 1);
+                indexState(task);
+            }
+        }
+        metrics.record(TaskMetrics.Operation.LOAD, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.storage = store.getClass().getSimpleName();
+            event.taskCount = tasks.size();
+            event.commit();
+        }
+    }
+
+    // Escribir ya los cambios pendientes (en modo asíncrono espera al hilo de escritura)
+    public void flush() {
+        saveTasks();
+    }
+
+    // Guardar y liberar el almacenamiento al cerrar la aplicación
+    public void close() {
+        unregisterMBean();
+        long stamp = writeLock();
+        try {
+            save();
+            store.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Métricas de las operaciones desde el arranque (o desde resetMetrics())
+    @Override
+    public TaskMetrics.Snapshot getMetrics() {
+        return metrics.snapshot(store.getBytesWritten());
+    }
+
+    @Override
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    /**
+     * Publicar el gestor por JMX como gestortareas:type=TaskManager (para
+     * JConsole o VisualVM). Solo puede haber uno registrado a la vez; close()
+     * lo retira.
+     */
+    public synchronized void registerMBean() throws JMException {
+        if (mbeanName == null) {
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            mbeanName = name;
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (mbeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+        } catch (JMException e) {
+            System.err.println("Error al retirar el MBean: " + e.getMessage());
+        }
+        mbeanName = null;
+    }
+
+    // Recibir avisos de los cambios posteriores al registro
+    public void addChangeListener(TaskChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(TaskChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Anotar un cambio para el aviso de la operación en curso (con el bloqueo
+    // de escritura); sin oyentes no se anota nada. before es null en un alta
+    // y after es null en una baja.
+    private void recordChange(Task before, Task after) {
+        if (!changeListeners.isEmpty()) {
+            pendingChanges.record(before, after);
+        }
+    }
+
+    // Fin de una operación que cambia tareas: se suelta el bloqueo y se avisa
+    private void unlockWrite(long stamp) {
+        try {
+            publishChanges();
+        } finally {
+            // Si el aviso falla, sus cambios no se cuelan en el de la operación siguiente
+            pendingChanges.clear();
+            lock.unlockWrite(stamp);
+        }
+        deliverChanges();
+    }
+
+    // Tomar el bloqueo; dentro de un lote, desde su propio hilo, se quedaría
+    // esperando a sí mismo
+    private long readLock() {
+        checkNotInBatch();
+        return lock.readLock();
+    }
+
+    private long writeLock() {
+        checkNotInBatch();
+        return lock.writeLock();
+    }
+
+    private void checkNotInBatch() {
+        if (batchOwner == Thread.currentThread()) {
+            throw new IllegalStateException("Dentro de batch() solo se pueden usar los métodos del lote");
+        }
+    }
+
+    // Poner en cola el aviso de la operación, con los contadores de ese momento
+    // (todavía con el bloqueo de escritura: la cola queda en el orden de los cambios)
+    private void publishChanges() {
+        if (!pendingChanges.isEmpty()) {
+            if (dueDateIndex.isOutdated()) {
+                dueDateIndex.refreshToday();
+            }
+            TaskChangeEvent event = pendingChanges.toEvent(counters.getTotal(), counters.getCompleted(),
+                    dueDateIndex.getOverdueCount());
+            // Un lote puede no dejar cambios netos (agregar y eliminar la misma tarea)
+            if (event.getChangeCount() > 0) {
+                changeEvents.add(event);
+            }
+        }
+        pendingChanges.clear();
+    }
+
+    // Entregar los avisos en cola, de uno en uno y en orden. Si otro hilo ya
+    // los está entregando, él se encarga también de los nuevos; así un oyente
+    // que modifica el gestor no recibe avisos anidados.
+    private void deliverChanges() {
+        while (!changeEvents.isEmpty() && deliveringChanges.compareAndSet(false, true)) {
+            try {
+                TaskChangeEvent event;
+                while ((event = changeEvents.poll()) != null) {
+                    for (TaskChangeListener listener : changeListeners) {
+                        try {
+                            listener.tasksChanged(event);
+                        } catch (RuntimeException e) {
+                            System.err.println("Error en un oyente de cambios: " + e);
+                        }
+                    }
+                }
+            } finally {
+                deliveringChanges.set(false);
+            }
+        }
+    }
+
+    /**
+     * Cambios de la operación en curso, por tarea: la versión anterior al
+     * primer cambio (null si es nueva) y la actual (null si se eliminó).
+     */
+    private static final class PendingChanges {
+        private final Map<Long, Task[]> changes = new LinkedHashMap<>();
+        // Lote o limpieza de completadas: un aviso BULK_CHANGED aunque cambie una sola tarea
+        private boolean bulk;
+
+        void record(Task before, Task after) {
+            long id = before != null ? before.getId() : after.getId();
+            Task[] change = changes.get(id);
+            if (change == null) {
+                changes.put(id, new Task[] {before, after});
+            } else {
+                change[1] = after;
+            }
+        }
+
+        boolean isEmpty() {
+            return changes.isEmpty();
+        }
+
+        void clear() {
+            changes.clear();
+            bulk = false;
+        }
+
+        TaskChangeEvent toEvent(int total, int completed, int overdue) {
+            List<Task> added = new ArrayList<>();
+            List<TaskChangeEvent.Update> updated = new ArrayList<>();
+            List<Task> removed = new ArrayList<>();
+            for (Task[] change : changes.values()) {
+                if (change[0] == null) {
+                    if (change[1] != null) {
+                        added.add(change[1]);
+                    }
+                } else if (change[1] == null) {
+                    removed.add(change[0]);
+                } else if (change[0] != change[1]) {
+                    updated.add(new TaskChangeEvent.Update(change[0], change[1]));
+                }
+            }
+            TaskChangeEvent.Type type = TaskChangeEvent.Type.BULK_CHANGED;
+            if (!bulk) {
+                type = !added.isEmpty() ? TaskChangeEvent.Type.ADDED
+                        : !removed.isEmpty() ? TaskChangeEvent.Type.REMOVED
+                        : TaskChangeEvent.Type.UPDATED;
+            }
+            return new TaskChangeEvent(type, added, updated, removed, total, completed, overdue);
+        }
+    }
+
+    // Error del almacenamiento: se cuenta y se registra como evento JFR
+    private void storageError(String message) {
+        metrics.storageError(message);
+        TaskEvents.StorageError event = new TaskEvents.StorageError();
+        if (event.shouldCommit()) {
+            event.message = message;
+            event.commit();
+        }
+    }
+
+    // Mantener los índices al día tras cada cambio (con el bloqueo de escritura)
+    private void indexAdded(Task task) {
+        if (mappedTasks == null) {
+            tasksById.put(task.getId(), task);
+        }
+        indexState(task);
+        if (titleIndex != null) {
+            titleIndex.add(task);
+        }
+        if (fullTextIndex != null) {
+            fullTextIndex.add(task);
+        }
+    }
+
+    private void indexRemoved(Task task) {
+        if (mappedTasks == null) {
+            tasksById.remove(task.getId());
+        }
+        unindexState(task);
+        if (titleIndex != null) {
+            titleIndex.remove(task);
+        }
+        if (fullTextIndex != null) {
+            fullTextIndex.remove(task);
+        }
+    }
+
+    // Sustituir una tarea por su nueva versión en la lista y en los índices
+    private void replace(Task task, Task updated) {
+        tasks.set(positionOf(task), updated);
+        if (mappedTasks == null) {
+            tasksById.put(updated.getId(), updated);
+        }
+        unindexState(task);
+        indexState(updated);
+        if (titleIndex != null) {
+            titleIndex.replace(task, updated);
+        }
+        if (fullTextIndex != null) {
+            fullTextIndex.replace(task, updated);
+        }
+    }
+
+    // Estado y fecha límite: se quita la versión anterior y se agrega la nueva
+    private void indexState(Task task) {
+        counters.add(task);
+        dueDateIndex.add(task);
+    }
+
+    private void unindexState(Task task) {
+        counters.remove(task);
+        dueDateIndex.remove(task);
+    }
+
+    // Fin de una consulta de filtro: latencia y evento JFR
+    private List<Task> filtered(String filter, TaskEvents.Filter event, long start, List<Task> result) {
+        metrics.record(TaskMetrics.Operation.FILTER, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.filter = filter;
+            event.resultCount = result.size();
+            event.commit();
+        }
+        return result;
+    }
+
+    // Al cambiar de día, actualizar las vencidas antes de consultar (requiere acceso exclusivo)
+    private void refreshDueDates() {
+        if (dueDateIndex.isOutdated()) {
+            long stamp = writeLock();
+            try {
+                dueDateIndex.refreshToday();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    // Tarea actual con ese id (con el bloqueo tomado)
+    private Task lookup(long id) {
+        if (mappedTasks == null) {
+            return tasksById.get(id);
+        }
+        // Las eliminadas que siguen en la lista están marcadas como borradas
+        return mappedTasks.findById(id);
+    }
+
+    // Posición en la lista de una tarea del gestor (búsqueda binaria por id)
+    private int positionOf(Task task) {
+        if (mappedTasks != null) {
+            return mappedTasks.indexOfId(task.getId());
+        }
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = tasks.get(middle).getId();
+            if (middleId < task.getId()) {
+                low = middle + 1;
+            } else if (middleId > task.getId()) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        // Lista no ordenada por id (no debería ocurrir): búsqueda lineal
+        return tasks.indexOf(task);
+    }
+
+    // Limpiar todas las tareas completadas
+    public void clearCompletedTasks() {
+        long stamp = writeLock();
+        try {
+            purgeRemoved();
+            List<Task> removed = new ArrayList<>();
+            boolean changed = tasks.removeIf(task -> {
+                if (task.isCompleted()) {
+                    removed.add(task);
+                    return true;
+                }
+                return false;
+            });
+            if (changed) {
+                store.completedTasksCleared();
+                pendingChanges.bulk = true;
+                for (Task task : removed) {
+                    indexRemoved(task);
+                    recordChange(task, null);
+                    metrics.increment(TaskMetrics.Counter.TASKS_REMOVED);
+                }
+            }
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    // Importar un archivo .csv o .jsonl (con .gz final, comprimido) en lotes; ver TaskImporter
+    public TaskImporter.Result importTasks(String filename) throws IOException {
+        return new TaskImporter(this).importFile(filename);
+    }
+
+    // Exportar tareas a texto plano
+    public void exportTasksToText(String filename) throws IOException {
+        exportTasks(filename, new TextTaskExporter(), filename.endsWith(".gz"));
+    }
+
+    // Exportar en el formato que indica la extensión (.txt, .csv, .jsonl; con .gz final se comprime)
+    public void exportTasks(String filename) throws IOException {
+        exportTasks(filename, TaskExporter.forFileName(filename), filename.endsWith(".gz"));
+    }
+
+    // Exportar recorriendo directamente la lista del gestor, con un único buffer grande.
+    // Las modificaciones esperan mientras dura la exportación (bloqueo de lectura).
+    public void exportTasks(String filename, TaskExporter exporter, boolean gzip) throws IOException {
+        TaskEvents.Export event = new TaskEvents.Export();
+        event.begin();
+        long start = metrics.start();
+        int taskCount;
+        try {
+            taskCount = export(filename, exporter, gzip);
+        } catch (IOException | RuntimeException e) {
+            metrics.increment(TaskMetrics.Counter.EXPORT_ERRORS);
+            throw e;
+        }
+        metrics.record(TaskMetrics.Operation.EXPORT, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.taskCount = taskCount;
+            event.bytesWritten = new File(filename).length();
+            event.commit();
+        }
+    }
+
+    // Escribir el archivo; devuelve el número de tareas exportadas
+    private int export(String filename, TaskExporter exporter, boolean gzip) throws IOException {
+        OutputStream out = new FileOutputStream(filename);
+        try {
+            if (gzip) {
+                out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                EXPORT_BUFFER_SIZE)) {
+            long stamp = readLock();
+            try {
+                stamp = purgeRemoved(stamp);
+                exporter.export(Collections.unmodifiableList(tasks), counters.getCompleted(), writer);
+                return tasks.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
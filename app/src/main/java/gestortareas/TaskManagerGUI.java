@@ -0,0 +1,975 @@
+package gestortareas;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class TaskManagerGUI extends JFrame {
+    // Por encima de este número de tareas cambiadas se vuelve a consultar la vista
+    private static final int MAX_ROW_UPDATES = 100;
+    // Espera tras la última tecla antes de buscar, y tamaño de los bloques de
+    // resultados (y de cada página pedida al gestor)
+    private static final int SEARCH_DELAY_MILLIS = 250;
+    private static final int SEARCH_CHUNK_SIZE = 500;
+    // Filas por debajo de la última visible a partir de las cuales se pide la página siguiente
+    private static final int FETCH_AHEAD_ROWS = 100;
+    // Filas con errores que se muestran al terminar una importación
+    private static final int MAX_IMPORT_ERRORS_SHOWN = 10;
+
+    // Solo se usa desde el hilo de tareas (taskExecutor), nunca desde el EDT
+    private TaskManager taskManager;
+    // Hilo único para cargar, guardar, consultar y exportar sin bloquear la interfaz;
+    // así las operaciones de la interfaz se ejecutan en el orden en que se piden
+    private final ExecutorService taskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gestor-tareas");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Controles que se desactivan mientras hay una operación en curso
+    private final List<JComponent> actionComponents = new ArrayList<>();
+    private JProgressBar progressBar;
+    private int runningOperations;
+    // Cambios grandes durante una operación: la vista se vuelve a consultar una vez, al terminar
+    private boolean reloadWhenIdle;
+    private JList<Task> taskList;
+    private TaskListModel listModel;
+    // Consulta de la vista actual: condición que cumplen sus tareas y orden
+    private TaskQuery viewQuery = TaskQuery.all();
+    // Cursor de la página siguiente de la vista (null si ya está entera) y
+    // última tarea recibida: las que van detrás llegan con esa página
+    private String viewCursor;
+    private Task lastFetched;
+    private JTextField titleField;
+    private JTextArea descriptionArea;
+    private JTextField dueDateField;
+    private JLabel statusLabel;
+    private JComboBox<String> filterCombo;
+    private JComboBox<String> sortCombo;
+    private JTextField searchField;
+    private Timer searchTimer;
+    // Búsqueda en curso (sus resultados se muestran) y última búsqueda terminada
+    private SearchWorker searchWorker;
+    private SearchResult lastSearch;
+
+    public TaskManagerGUI() {
+        initializeGUI();
+        runInBackground("Cargando tareas...", "Error al cargar las tareas", () -> {
+            taskManager = new TaskManager();
+            Main.registerMBean(taskManager);
+            // Los avisos llegan en el hilo que hizo el cambio: se aplican en el EDT
+            taskManager.addChangeListener(event -> SwingUtilities.invokeLater(() -> tasksChanged(event)));
+            return null;
+        }, result -> {
+            // La lista se pide por páginas, como cualquier otra vista
+            filterTasks();
+            updateStatusLabel();
+            scheduleMidnightRefresh();
+        });
+    }
+
+    // Ejecutar una operación del gestor en el hilo de tareas y entregar su
+    // resultado en el EDT. Mientras tanto se muestra el progreso y se
+    // desactivan las acciones que podrían entrar en conflicto.
+    private <T> void runInBackground(String progressMessage, String errorMessage, Callable<T> operation,
+            Consumer<T> onSuccess) {
+        setBusy(progressMessage);
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return operation.call();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    onSuccess.accept(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(TaskManagerGUI.this, errorMessage + ": " + e.getCause().getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    setIdle();
+                }
+            }
+        };
+        taskExecutor.execute(worker);
+    }
+
+    private void setBusy(String message) {
+        // Las tareas pueden cambiar: la próxima búsqueda no refina la anterior
+        lastSearch = null;
+        // Una búsqueda pendiente cambiaría la lista bajo esta operación: se
+        // descarta y se repite cuando termine (la página siguiente de la vista
+        // se vuelve a pedir al terminar, ver setIdle)
+        if (searchWorker != null) {
+            boolean appending = searchWorker.appends();
+            cancelSearch();
+            if (!appending) {
+                searchTimer.restart();
+            }
+        }
+        runningOperations++;
+        progressBar.setString(message);
+        progressBar.setVisible(true);
+        setActionsEnabled(false);
+    }
+
+    private void setIdle() {
+        runningOperations--;
+        if (runningOperations == 0) {
+            progressBar.setVisible(false);
+            setActionsEnabled(true);
+            if (reloadWhenIdle) {
+                reloadWhenIdle = false;
+                reloadView();
+            } else {
+                fetchMoreIfNeeded();
+            }
+        }
+    }
+
+    private void setActionsEnabled(boolean enabled) {
+        for (JComponent component : actionComponents) {
+            component.setEnabled(enabled);
+        }
+    }
+
+    // Al cambiar de día, actualizar las vencidas (estado y colores de la lista).
+    // Con el filtro "Vencidas" cambian también las filas: se consulta de nuevo.
+    private void scheduleMidnightRefresh() {
+        LocalDateTime nextMidnight = LocalDate.now().plusDays(1).atStartOfDay();
+        long delay = Duration.between(LocalDateTime.now(), nextMidnight).toMillis() + 1000;
+        Timer timer = new Timer((int) Math.min(delay, Integer.MAX_VALUE), e -> {
+            updateStatusLabel();
+            if ("Vencidas".equals(filterCombo.getSelectedItem())) {
+                if (runningOperations > 0) {
+                    reloadWhenIdle = true;
+                } else {
+                    reloadView();
+                }
+            } else {
+                taskList.repaint();
+            }
+            scheduleMidnightRefresh();
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    private void initializeGUI() {
+        setTitle("Gestor de Tareas");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        // Guardar los cambios pendientes antes de salir
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Se espera a que terminen las operaciones en curso y al guardado final
+                try {
+                    taskExecutor.submit(() -> {
+                        if (taskManager != null) {
+                            taskManager.close();
+                        }
+                    }).get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    System.err.println("Error al guardar las tareas: " + ex.getCause().getMessage());
+                }
+                taskExecutor.shutdown();
+            }
+        });
+
+        // Panel principal
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        // Panel superior - Filtros y búsqueda
+        JPanel topPanel = createTopPanel();
+        mainPanel.add(topPanel, BorderLayout.NORTH);
+
+        // Panel central - Lista de tareas
+        JPanel centerPanel = createCenterPanel();
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
+
+        // Panel derecho - Formulario de nueva tarea
+        JPanel rightPanel = createRightPanel();
+        mainPanel.add(rightPanel, BorderLayout.EAST);
+
+        // Panel inferior - Botones de acción y estado
+        JPanel bottomPanel = createBottomPanel();
+        mainPanel.add(bottomPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+
+        // Configuración de la ventana
+        setSize(1000, 700);
+        setLocationRelativeTo(null);
+        setMinimumSize(new Dimension(800, 600));
+
+        // Establecer colores modernos
+        setAppearance();
+    }
+
+    private void setAppearance() {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            // Usar look and feel por defecto
+        }
+
+        // Colores personalizados
+        Color primaryColor = new Color(52, 152, 219);
+        Color secondaryColor = new Color(236, 240, 241);
+        Color accentColor = new Color(46, 204, 113);
+        Color dangerColor = new Color(231, 76, 60);
+
+        getContentPane().setBackground(secondaryColor);
+    }
+
+    private JPanel createTopPanel() {
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.setBorder(new TitledBorder("Filtros y Búsqueda"));
+
+        // Filtro por tipo
+        JLabel filterLabel = new JLabel("Filtrar:");
+        String[] filterOptions = { "Todas", "Pendientes", "Completadas", "Vencidas" };
+        filterCombo = new JComboBox<>(filterOptions);
+        filterCombo.addActionListener(e -> filterTasks());
+
+        // Orden de la lista
+        JLabel sortLabel = new JLabel("Ordenar:");
+        String[] sortOptions = { "Orden de alta", "Más recientes", "Fecha límite", "Título" };
+        sortCombo = new JComboBox<>(sortOptions);
+        sortCombo.addActionListener(e -> filterTasks());
+
+        // Campo de búsqueda
+        JLabel searchLabel = new JLabel("Buscar:");
+        searchField = new JTextField(15);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Solo cambian atributos del texto
+            }
+        });
+        // Intro o el botón buscan sin esperar
+        searchField.addActionListener(e -> searchWhenIdle());
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> searchWhenIdle());
+        searchTimer.setRepeats(false);
+        JButton searchButton = new JButton("Buscar");
+        searchButton.addActionListener(e -> filterTasks());
+
+        // Botón limpiar filtros
+        JButton clearButton = new JButton("Limpiar");
+        clearButton.addActionListener(e -> clearFilters());
+
+        actionComponents.add(filterCombo);
+        actionComponents.add(sortCombo);
+        // El campo de búsqueda sigue activo para poder escribir durante las operaciones
+        actionComponents.add(searchButton);
+        actionComponents.add(clearButton);
+
+        topPanel.add(filterLabel);
+        topPanel.add(filterCombo);
+        topPanel.add(sortLabel);
+        topPanel.add(sortCombo);
+        topPanel.add(Box.createHorizontalStrut(20));
+        topPanel.add(searchLabel);
+        topPanel.add(searchField);
+        topPanel.add(searchButton);
+        topPanel.add(clearButton);
+
+        return topPanel;
+    }
+
+    private JPanel createCenterPanel() {
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.setBorder(new TitledBorder("Lista de Tareas"));
+
+        // Lista de tareas
+        listModel = new TaskListModel();
+        taskList = new JList<>(listModel);
+        taskList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        taskList.setCellRenderer(new TaskCellRenderer());
+        setFixedCellSize();
+
+        JScrollPane scrollPane = new JScrollPane(taskList);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+        // Al acercarse al final de lo recibido se pide la página siguiente
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> fetchMoreIfNeeded());
+
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+
+        return centerPanel;
+    }
+
+    // Con alto y ancho fijos la JList no mide cada fila: solo pinta las visibles.
+    // El alto se toma de una tarea vencida, que ocupa el máximo de líneas; el
+    // ancho mínimo hace que las filas ocupen el ancho visible de la lista.
+    private void setFixedCellSize() {
+        Task prototype = new Task("Título", "Descripción", LocalDate.now().minusDays(1));
+        Component cell = taskList.getCellRenderer().getListCellRendererComponent(taskList, prototype, 0, false,
+                false);
+        taskList.setFixedCellHeight(cell.getPreferredSize().height);
+        taskList.setFixedCellWidth(1);
+    }
+
+    private JPanel createRightPanel() {
+        JPanel rightPanel = new JPanel(new BorderLayout());
+        rightPanel.setBorder(new TitledBorder("Nueva Tarea"));
+        rightPanel.setPreferredSize(new Dimension(300, 0));
+
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        // Campo título
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        formPanel.add(new JLabel("Título:"), gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        titleField = new JTextField(20);
+        formPanel.add(titleField, gbc);
+
+        // Campo descripción
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.fill = GridBagConstraints.NONE;
+        formPanel.add(new JLabel("Descripción:"), gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.weightx = 1.0;
+        gbc.weighty = 1.0;
+        descriptionArea = new JTextArea(5, 20);
+        descriptionArea.setLineWrap(true);
+        descriptionArea.setWrapStyleWord(true);
+        JScrollPane descScrollPane = new JScrollPane(descriptionArea);
+        formPanel.add(descScrollPane, gbc);
+
+        // Campo fecha límite
+        gbc.gridx = 0;
+        gbc.gridy = 4;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.weightx = 0;
+        gbc.weighty = 0;
+        formPanel.add(new JLabel("Fecha límite (dd/mm/yyyy):"), gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        dueDateField = new JTextField(20);
+        dueDateField.setToolTipText("Formato: dd/mm/yyyy (opcional)");
+        formPanel.add(dueDateField, gbc);
+
+        // Botones
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+
+        JButton addButton = new JButton("Agregar Tarea");
+        addButton.setBackground(new Color(46, 204, 113));
+        addButton.setForeground(Color.WHITE);
+        addButton.setFocusPainted(false);
+        addButton.addActionListener(e -> addTask());
+
+        JButton clearFormButton = new JButton("Limpiar");
+        clearFormButton.addActionListener(e -> clearForm());
+
+        actionComponents.add(addButton);
+
+        buttonPanel.add(addButton);
+        buttonPanel.add(clearFormButton);
+        formPanel.add(buttonPanel, gbc);
+
+        rightPanel.add(formPanel, BorderLayout.CENTER);
+
+        return rightPanel;
+    }
+
+    private JPanel createBottomPanel() {
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+
+        // Panel de botones de acción
+        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+
+        JButton completeButton = new JButton("Marcar Completada");
+        completeButton.setBackground(new Color(52, 152, 219));
+        completeButton.setForeground(Color.WHITE);
+        completeButton.setFocusPainted(false);
+        completeButton.addActionListener(e -> markTaskCompleted());
+
+        JButton pendingButton = new JButton("Marcar Pendiente");
+        pendingButton.addActionListener(e -> markTaskPending());
+
+        JButton deleteButton = new JButton("Eliminar");
+        deleteButton.setBackground(new Color(231, 76, 60));
+        deleteButton.setForeground(Color.WHITE);
+        deleteButton.setFocusPainted(false);
+        deleteButton.addActionListener(e -> deleteTask());
+
+        JButton clearCompletedButton = new JButton("Limpiar Completadas");
+        clearCompletedButton.addActionListener(e -> clearCompletedTasks());
+
+        JButton importButton = new JButton("Importar");
+        importButton.addActionListener(e -> importTasks());
+
+        JButton exportButton = new JButton("Exportar");
+        exportButton.addActionListener(e -> exportTasks());
+
+        actionComponents.add(completeButton);
+        actionComponents.add(pendingButton);
+        actionComponents.add(deleteButton);
+        actionComponents.add(clearCompletedButton);
+        actionComponents.add(importButton);
+        actionComponents.add(exportButton);
+
+        actionPanel.add(completeButton);
+        actionPanel.add(pendingButton);
+        actionPanel.add(deleteButton);
+        actionPanel.add(clearCompletedButton);
+        actionPanel.add(importButton);
+        actionPanel.add(exportButton);
+
+        // Label de estado
+        statusLabel = new JLabel();
+        statusLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
+
+        // Progreso de la operación en curso
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        statusPanel.add(progressBar);
+        statusPanel.add(statusLabel);
+
+        bottomPanel.add(actionPanel, BorderLayout.WEST);
+        bottomPanel.add(statusPanel, BorderLayout.EAST);
+
+        return bottomPanel;
+    }
+
+    private void addTask() {
+        String title = titleField.getText().trim();
+        String description = descriptionArea.getText().trim();
+        String dueDateStr = dueDateField.getText().trim();
+
+        if (title.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "El título es obligatorio", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (description.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "La descripción es obligatoria", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        LocalDate dueDate = null;
+        if (!dueDateStr.isEmpty()) {
+            try {
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+                dueDate = LocalDate.parse(dueDateStr, formatter);
+            } catch (DateTimeParseException e) {
+                JOptionPane.showMessageDialog(this, "Formato de fecha inválido. Use dd/mm/yyyy", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+
+        LocalDate taskDueDate = dueDate;
+        runInBackground("Guardando tarea...", "Error al agregar la tarea",
+                () -> taskManager.addTask(title, description, taskDueDate), task -> {
+                    // La vista y las estadísticas ya se actualizaron con el aviso del gestor
+                    clearForm();
+                    JOptionPane.showMessageDialog(this, "Tarea agregada exitosamente", "Éxito",
+                            JOptionPane.INFORMATION_MESSAGE);
+                });
+    }
+
+    private void clearForm() {
+        titleField.setText("");
+        descriptionArea.setText("");
+        dueDateField.setText("");
+    }
+
+    private void markTaskCompleted() {
+        setSelectedTasksCompleted(true);
+    }
+
+    private void markTaskPending() {
+        setSelectedTasksCompleted(false);
+    }
+
+    // Completar o reabrir todas las tareas seleccionadas en un solo lote
+    private void setSelectedTasksCompleted(boolean completed) {
+        int[] indices = taskList.getSelectedIndices();
+        if (indices.length == 0) {
+            JOptionPane.showMessageDialog(this, "Seleccione una tarea", "Aviso", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        long[] ids = selectedIds(indices);
+        runInBackground("Guardando...", "Error al actualizar las tareas", () -> {
+            taskManager.batch(batch -> {
+                for (long id : ids) {
+                    if (completed) {
+                        batch.complete(id);
+                    } else {
+                        batch.reopen(id);
+                    }
+                }
+            });
+            return null;
+        }, result -> {
+            // Las filas se actualizan con el aviso del gestor (tasksChanged)
+        });
+    }
+
+    private void deleteTask() {
+        int[] indices = taskList.getSelectedIndices();
+        if (indices.length == 0) {
+            JOptionPane.showMessageDialog(this, "Seleccione una tarea", "Aviso", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String message = indices.length == 1
+                ? "¿Está seguro de eliminar la tarea: " + listModel.getElementAt(indices[0]).getTitle() + "?"
+                : "¿Eliminar las " + indices.length + " tareas seleccionadas?";
+        int option = JOptionPane.showConfirmDialog(this, message, "Confirmar eliminación",
+                JOptionPane.YES_NO_OPTION);
+
+        if (option == JOptionPane.YES_OPTION) {
+            long[] ids = selectedIds(indices);
+            runInBackground("Eliminando...", "Error al eliminar las tareas", () -> {
+                taskManager.batch(batch -> {
+                    for (long id : ids) {
+                        batch.remove(id);
+                    }
+                });
+                return null;
+            }, result -> {
+                // Las filas se actualizan con el aviso del gestor (tasksChanged)
+            });
+        }
+    }
+
+    private long[] selectedIds(int[] indices) {
+        long[] ids = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            ids[i] = listModel.getElementAt(indices[i]).getId();
+        }
+        return ids;
+    }
+
+    private void clearCompletedTasks() {
+        runInBackground("Contando tareas...", "Error al contar las tareas",
+                () -> taskManager.getCompletedTasksCount(), this::confirmClearCompletedTasks);
+    }
+
+    private void confirmClearCompletedTasks(int completedCount) {
+        if (completedCount == 0) {
+            JOptionPane.showMessageDialog(this, "No hay tareas completadas para eliminar", "Información",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int option = JOptionPane.showConfirmDialog(this,
+                "¿Eliminar todas las " + completedCount + " tareas completadas?",
+                "Confirmar eliminación",
+                JOptionPane.YES_NO_OPTION);
+
+        if (option == JOptionPane.YES_OPTION) {
+            runInBackground("Eliminando completadas...", "Error al eliminar las tareas", () -> {
+                taskManager.clearCompletedTasks();
+                return null;
+            }, result -> {
+                // Las filas se actualizan con el aviso del gestor (tasksChanged)
+            });
+        }
+    }
+
+    // Importar un archivo CSV o JSON Lines; la vista se actualiza con los avisos del gestor
+    private void importTasks() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Importar tareas (.csv o .jsonl, también con .gz)");
+
+        int option = fileChooser.showOpenDialog(this);
+        if (option == JFileChooser.APPROVE_OPTION) {
+            String filename = fileChooser.getSelectedFile().getAbsolutePath();
+            runInBackground("Importando...", "Error al importar",
+                    () -> taskManager.importTasks(filename), this::showImportResult);
+        }
+    }
+
+    // Resumen de la importación con las primeras filas rechazadas
+    private void showImportResult(TaskImporter.Result result) {
+        StringBuilder message = new StringBuilder(result.getImportedCount() + " tareas importadas");
+        if (result.getErrorCount() == 0) {
+            JOptionPane.showMessageDialog(this, message, "Éxito", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        message.append("\n").append(result.getErrorCount()).append(" filas con errores:");
+        List<TaskImporter.RowError> errors = result.getErrors();
+        for (int i = 0; i < Math.min(errors.size(), MAX_IMPORT_ERRORS_SHOWN); i++) {
+            message.append("\n").append(errors.get(i));
+        }
+        if (result.getErrorCount() > MAX_IMPORT_ERRORS_SHOWN) {
+            message.append("\n...");
+        }
+        JOptionPane.showMessageDialog(this, message, "Importación", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private void exportTasks() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new java.io.File("tareas_" + LocalDate.now().toString() + ".txt"));
+        fileChooser.setDialogTitle("Exportar tareas (.txt, .csv o .jsonl; agregue .gz para comprimir)");
+
+        int option = fileChooser.showSaveDialog(this);
+        if (option == JFileChooser.APPROVE_OPTION) {
+            String filename = fileChooser.getSelectedFile().getAbsolutePath();
+            runInBackground("Exportando...", "Error al exportar", () -> {
+                taskManager.exportTasks(filename);
+                return null;
+            }, result -> JOptionPane.showMessageDialog(this, "Tareas exportadas exitosamente", "Éxito",
+                    JOptionPane.INFORMATION_MESSAGE));
+        }
+    }
+
+    // Mostrar la vista actual: el filtro de estado combinado con la búsqueda
+    // por título, si hay una palabra clave escrita, en el orden elegido
+    private void filterTasks() {
+        searchTimer.stop();
+        cancelSearch();
+        boolean newestFirst = "Más recientes".equals(sortCombo.getSelectedItem());
+        TaskQuery query = TaskQuery.all()
+                .withStatus(selectedStatus())
+                .withTitleContaining(searchField.getText())
+                .sortedBy(selectedSort(), newestFirst);
+        startSearch(query);
+    }
+
+    private TaskQuery.Status selectedStatus() {
+        switch ((String) filterCombo.getSelectedItem()) {
+            case "Pendientes":
+                return TaskQuery.Status.PENDING;
+            case "Completadas":
+                return TaskQuery.Status.COMPLETED;
+            case "Vencidas":
+                return TaskQuery.Status.OVERDUE;
+            default:
+                return TaskQuery.Status.ALL;
+        }
+    }
+
+    private TaskQuery.Sort selectedSort() {
+        switch ((String) sortCombo.getSelectedItem()) {
+            case "Fecha límite":
+                return TaskQuery.Sort.DUE_DATE;
+            case "Título":
+                return TaskQuery.Sort.TITLE;
+            default:
+                // Orden de alta, también el de "Más recientes" (al revés)
+                return TaskQuery.Sort.ID;
+        }
+    }
+
+    // Búsqueda mientras se escribe: cada cambio del campo reinicia la espera y
+    // la búsqueda arranca cuando se deja de escribir. Si hay una operación en
+    // curso se vuelve a esperar, para no cambiar la lista mientras tanto.
+    private void searchTextChanged() {
+        searchTimer.restart();
+    }
+
+    private void searchWhenIdle() {
+        if (runningOperations > 0) {
+            searchTimer.restart();
+        } else {
+            filterTasks();
+        }
+    }
+
+    // Buscar en el hilo de tareas sin bloquear la interfaz. Si la palabra clave
+    // contiene la de la búsqueda anterior, basta con filtrar sus resultados.
+    private void startSearch(TaskQuery query) {
+        List<Task> candidates = lastSearch != null && query.narrows(lastSearch.query) ? lastSearch.matches : null;
+        searchWorker = new SearchWorker(query, candidates, null);
+        taskExecutor.execute(searchWorker);
+    }
+
+    // Pedir la página siguiente de la vista si quedan pocas filas por debajo
+    // de las visibles (y no hay otra consulta u operación en curso)
+    private void fetchMoreIfNeeded() {
+        if (viewCursor == null || searchWorker != null || runningOperations > 0) {
+            return;
+        }
+        if (taskList.getLastVisibleIndex() >= listModel.getSize() - FETCH_AHEAD_ROWS) {
+            searchWorker = new SearchWorker(viewQuery, null, viewCursor);
+            taskExecutor.execute(searchWorker);
+        }
+    }
+
+    // La búsqueda en curso ya no interesa: deja de enviar resultados a la lista
+    private void cancelSearch() {
+        if (searchWorker != null) {
+            searchWorker.cancel(false);
+            searchWorker = null;
+        }
+    }
+
+    // Resultado completo de la última búsqueda, en el orden de la consulta
+    private static final class SearchResult {
+        final TaskQuery query;
+        final List<Task> matches;
+
+        SearchResult(TaskQuery query, List<Task> matches) {
+            this.query = query;
+            this.matches = matches;
+        }
+    }
+
+    /**
+     * Consulta de la vista (y búsqueda por título) en el hilo de tareas. Se
+     * pide al gestor una página de SEARCH_CHUNK_SIZE tareas con el cursor de
+     * TaskPage; las siguientes se piden al desplazar la lista hacia el final
+     * (fetchMoreIfNeeded), así una lista larga nunca está entera en memoria.
+     * La primera entrega de una consulta nueva sustituye a la vista anterior;
+     * la de una página siguiente se agrega al final. Una búsqueda cancelada
+     * descarta sus bloques pendientes.
+     */
+    private final class SearchWorker extends SwingWorker<List<Task>, Task> {
+        private final TaskQuery query;
+        // Resultados de una búsqueda anterior que se refinan, o null para consultar al gestor
+        private final List<Task> candidates;
+        // Cursor de la página que se pide (null = la primera)
+        private final String cursor;
+        private boolean viewReplaced;
+        // Cursor de la página siguiente y última tarea recibida (en el hilo de tareas)
+        private String nextCursor;
+        private Task last;
+
+        SearchWorker(TaskQuery query, List<Task> candidates, String cursor) {
+            this.query = query;
+            this.candidates = candidates;
+            this.cursor = cursor;
+            this.viewReplaced = cursor != null;
+        }
+
+        // Página siguiente de la vista actual, que se agrega al final
+        boolean appends() {
+            return cursor != null;
+        }
+
+        @Override
+        protected List<Task> doInBackground() {
+            return candidates != null ? refine() : fetchPage();
+        }
+
+        private List<Task> fetchPage() {
+            TaskPage page = taskManager.query(query.withPage(0, SEARCH_CHUNK_SIZE).after(cursor));
+            List<Task> matches = page.getTasks();
+            if (!matches.isEmpty()) {
+                publish(matches.toArray(new Task[0]));
+                last = matches.get(matches.size() - 1);
+            }
+            nextCursor = page.getNextCursor();
+            return matches;
+        }
+
+        private List<Task> refine() {
+            List<Task> matches = new ArrayList<>();
+            for (int start = 0; start < candidates.size(); start += SEARCH_CHUNK_SIZE) {
+                if (isCancelled()) {
+                    return null;
+                }
+                int end = Math.min(start + SEARCH_CHUNK_SIZE, candidates.size());
+                int first = matches.size();
+                for (int i = start; i < end; i++) {
+                    Task task = candidates.get(i);
+                    if (query.matches(task)) {
+                        matches.add(task);
+                    }
+                }
+                if (matches.size() > first) {
+                    publish(matches.subList(first, matches.size()).toArray(new Task[0]));
+                }
+            }
+            return matches;
+        }
+
+        @Override
+        protected void process(List<Task> chunk) {
+            if (searchWorker != this) {
+                return;
+            }
+            if (viewReplaced) {
+                listModel.addTasks(chunk);
+            } else {
+                showTasks(new ArrayList<>(chunk), query);
+                viewReplaced = true;
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (searchWorker != this) {
+                return;
+            }
+            searchWorker = null;
+            try {
+                List<Task> matches = get();
+                if (!viewReplaced) {
+                    showTasks(new ArrayList<>(), query);
+                }
+                if (last != null) {
+                    lastFetched = last;
+                }
+                viewCursor = nextCursor;
+                // Solo un resultado completo sirve para refinar la próxima
+                // búsqueda; si otra operación ya está en cola, las tareas
+                // pueden haber cambiado
+                if (runningOperations == 0 && !appends() && nextCursor == null) {
+                    lastSearch = new SearchResult(query, matches);
+                }
+                fetchMoreIfNeeded();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                JOptionPane.showMessageDialog(TaskManagerGUI.this,
+                        "Error al buscar las tareas: " + e.getCause().getMessage(), "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // Mostrar el resultado de una consulta (un solo evento para toda la lista)
+    private void showTasks(List<Task> tasks, TaskQuery query) {
+        listModel.setTasks(tasks);
+        viewQuery = query;
+        viewCursor = null;
+    }
+
+    // Volver a consultar la vista actual tras un cambio que afecta a muchas tareas
+    private void reloadView() {
+        filterTasks();
+    }
+
+    // Aviso de cambios del gestor (en el EDT): se corrigen solo las filas de
+    // las tareas afectadas, cada una en su sitio según el orden de la vista, y
+    // las estadísticas salen de los contadores del aviso. Si son muchas, es
+    // más barato volver a consultar la vista entera.
+    private void tasksChanged(TaskChangeEvent event) {
+        statusLabel.setText(statusText(event.getTotalCount(), event.getPendingCount(), event.getCompletedCount(),
+                event.getOverdueCount()));
+        // La próxima búsqueda no puede refinar resultados anteriores al cambio
+        lastSearch = null;
+        if (searchWorker != null) {
+            // Una búsqueda a medio entregar se repite entera
+            reloadView();
+            return;
+        }
+        if (event.getChangeCount() > MAX_ROW_UPDATES) {
+            // Una importación da un aviso por bloque: basta con consultar al final
+            if (runningOperations > 0) {
+                reloadWhenIdle = true;
+            } else {
+                reloadView();
+            }
+            return;
+        }
+        Comparator<Task> order = viewQuery.comparator();
+        for (Task task : event.getRemoved()) {
+            int index = listModel.indexOf(task, order);
+            if (index >= 0) {
+                listModel.removeTask(index);
+            }
+        }
+        for (TaskChangeEvent.Update update : event.getUpdated()) {
+            taskChangedInView(update.getBefore(), update.getAfter(), order);
+        }
+        for (Task task : event.getAdded()) {
+            if (viewQuery.matches(task) && isFetched(task, order)) {
+                listModel.insertTask(task, order);
+            }
+        }
+    }
+
+    // Con la vista a medias, una tarea que va detrás de la última recibida
+    // llegará con la página siguiente: no se inserta ahora
+    private boolean isFetched(Task task, Comparator<Task> order) {
+        return viewCursor == null || order.compare(task, lastFetched) < 0;
+    }
+
+    // Una tarea cambió: si sigue en el mismo sitio se sustituye la fila (y se
+    // conserva la selección); si no, sale de la vista y entra donde le toca
+    // si cumple la consulta
+    private void taskChangedInView(Task before, Task after, Comparator<Task> order) {
+        int index = listModel.indexOf(before, order);
+        boolean shown = viewQuery.matches(after) && isFetched(after, order);
+        if (index >= 0 && shown && order.compare(before, after) == 0) {
+            listModel.setTask(index, after);
+            return;
+        }
+        if (index >= 0) {
+            listModel.removeTask(index);
+        }
+        if (shown) {
+            listModel.insertTask(after, order);
+        }
+    }
+
+    private void clearFilters() {
+        searchField.setText("");
+        // Seleccionar "Todas" vuelve a cargar la lista completa
+        filterCombo.setSelectedIndex(0);
+    }
+
+    private void updateStatusLabel() {
+        runInBackground("Actualizando...", "Error al contar las tareas", () -> {
+            int total = taskManager.getTotalTasksCount();
+            int pending = taskManager.getPendingTasksCount();
+            int completed = taskManager.getCompletedTasksCount();
+            int overdue = taskManager.getOverdueTasksCount();
+            return statusText(total, pending, completed, overdue);
+        }, statusLabel::setText);
+    }
+
+    private static String statusText(int total, int pending, int completed, int overdue) {
+        return String.format("Total: %d | Pendientes: %d | Completadas: %d | Vencidas: %d",
+                total, pending, completed, overdue);
+    }
+}
\ No newline at end of file
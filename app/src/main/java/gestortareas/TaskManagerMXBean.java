@@ -0,0 +1,19 @@
+package gestortareas;
+
+/**
+ * Interfaz JMX del TaskManager (registrada con TaskManager.registerMBean()
+ * como gestortareas:type=TaskManager): contadores de tareas y métricas.
+ */
+public interface TaskManagerMXBean {
+    int getTotalTasksCount();
+
+    int getPendingTasksCount();
+
+    int getCompletedTasksCount();
+
+    int getOverdueTasksCount();
+
+    TaskMetrics.Snapshot getMetrics();
+
+    void resetMetrics();
+}
@@ -0,0 +1,264 @@
+package gestortareas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas internas del TaskManager: un histograma de latencias por tipo de
+ * operación y contadores de cambios y errores.
+ *
+ * Los histogramas usan cubetas de potencias de 2 (en nanosegundos), así que
+ * los percentiles son aproximados por exceso (como mucho el doble). Todo se
+ * actualiza con LongAdder, sin bloqueos. Con -Dtaskmanager.metrics=false no
+ * se mide nada: start() no lee el reloj y record() no hace nada.
+ */
+public final class TaskMetrics {
+    public static final String ENABLED_PROPERTY = "taskmanager.metrics";
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    // Operaciones con latencia medida
+    public enum Operation {
+        SAVE, LOAD, SEARCH, FILTER, EXPORT, BATCH
+    }
+
+    // Sucesos que solo se cuentan
+    public enum Counter {
+        TASKS_ADDED, TASKS_UPDATED, STATUS_CHANGES, TASKS_REMOVED, EXPORT_ERRORS, STORAGE_ERRORS
+    }
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private volatile String lastStorageError;
+
+    TaskMetrics() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new Histogram());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    // Instante de inicio para record(); 0 si las métricas están desactivadas
+    long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    void record(Operation operation, long start) {
+        if (ENABLED) {
+            histograms.get(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    void increment(Counter counter) {
+        if (ENABLED) {
+            counters.get(counter).increment();
+        }
+    }
+
+    // Los errores de almacenamiento se cuentan siempre (son raros)
+    void storageError(String message) {
+        counters.get(Counter.STORAGE_ERRORS).increment();
+        lastStorageError = message;
+    }
+
+    void reset() {
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+        lastStorageError = null;
+    }
+
+    Snapshot snapshot(long bytesWritten) {
+        List<OperationStats> operations = new ArrayList<>();
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            operations.add(entry.getValue().stats(entry.getKey().name()));
+        }
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey().name(), entry.getValue().sum());
+        }
+        return new Snapshot(ENABLED, operations, counterValues, bytesWritten, lastStorageError);
+    }
+
+    // Histograma de latencias: la cubeta i cuenta las duraciones de menos de 2^i ns
+    private static final class Histogram {
+        private static final int BUCKETS = 64;
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        OperationStats stats(String name) {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            double mean = count == 0 ? 0 : totalNanos.sum() / (double) count / 1000;
+            double max = maxNanos.get() / 1000.0;
+            // El límite de la cubeta puede pasar del máximo observado
+            return new OperationStats(name, count, mean, Math.min(percentile(counts, count, 0.50), max),
+                    Math.min(percentile(counts, count, 0.90), max), Math.min(percentile(counts, count, 0.99), max),
+                    max);
+        }
+
+        // Límite superior (en microsegundos) de la cubeta donde cae el percentil
+        private static double percentile(long[] counts, long count, double fraction) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.scalb(1.0, i) / 1000;
+                }
+            }
+            return Double.MAX_VALUE;
+        }
+    }
+
+    // Estadísticas de un tipo de operación (tiempos en microsegundos)
+    public static final class OperationStats {
+        private final String operation;
+        private final long count;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+
+        OperationStats(String operation, long count, double meanMicros, double p50Micros, double p90Micros,
+                double p99Micros, double maxMicros) {
+            this.operation = operation;
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP90Micros() {
+            return p90Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ops, media %.1f µs, p50 %.1f µs, p90 %.1f µs, p99 %.1f µs, máx %.1f µs",
+                    operation, count, meanMicros, p50Micros, p90Micros, p99Micros, maxMicros);
+        }
+    }
+
+    // Copia de todas las métricas en un momento dado
+    public static final class Snapshot {
+        private final boolean enabled;
+        private final List<OperationStats> operations;
+        private final Map<String, Long> counters;
+        private final long bytesWritten;
+        private final String lastStorageError;
+
+        Snapshot(boolean enabled, List<OperationStats> operations, Map<String, Long> counters, long bytesWritten,
+                String lastStorageError) {
+            this.enabled = enabled;
+            this.operations = Collections.unmodifiableList(operations);
+            this.counters = Collections.unmodifiableMap(counters);
+            this.bytesWritten = bytesWritten;
+            this.lastStorageError = lastStorageError;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public List<OperationStats> getOperations() {
+            return operations;
+        }
+
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        // Bytes escritos por el almacenamiento desde que se abrió
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public String getLastStorageError() {
+            return lastStorageError;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (OperationStats stats : operations) {
+                sb.append(stats).append('\n');
+            }
+            sb.append(counters).append(", bytes escritos: ").append(bytesWritten);
+            if (lastStorageError != null) {
+                sb.append(", último error: ").append(lastStorageError);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package gestortareas;
+
+import java.util.List;
+
+/**
+ * Resultado de TaskManager.query(): las tareas de la página y, si quedan
+ * más, el cursor para pedir la siguiente con TaskQuery.after().
+ */
+public final class TaskPage {
+    private final List<Task> tasks;
+    private final String nextCursor;
+
+    TaskPage(List<Task> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    // null si esta es la última página
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,328 @@
+package gestortareas;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Consulta de tareas para TaskManager.query(): estado, texto en el título
+ * (o también en la descripción), rangos de fecha límite y de creación, orden
+ * y página.
+ *
+ * Es inmutable, como Task: cada with... devuelve una copia. La página se
+ * elige con offset/limit o con el cursor de la página anterior (getNextCursor
+ * de TaskPage), que sigue siendo válido aunque se agreguen o eliminen tareas
+ * entre una página y la siguiente.
+ */
+public final class TaskQuery {
+    public enum Status {
+        ALL, PENDING, COMPLETED, OVERDUE
+    }
+
+    // Los empates se resuelven siempre por id, así el orden es total
+    public enum Sort {
+        ID, DUE_DATE, CREATED_DATE, TITLE
+    }
+
+    private static final Comparator<Task> BY_ID = Comparator.comparingLong(Task::getId);
+    // Las tareas sin fecha límite van al final
+    private static final Comparator<Task> BY_DUE_DATE = Comparator
+            .comparingLong((Task task) -> task.hasDueDate() ? task.getDueEpochDay() : Long.MAX_VALUE)
+            .thenComparing(BY_ID);
+    private static final Comparator<Task> BY_CREATED_DATE = Comparator
+            .comparingInt(Task::getCreatedEpochDay)
+            .thenComparing(BY_ID);
+    private static final Comparator<Task> BY_TITLE = Comparator
+            .comparing((Task task) -> task.getTitle() != null ? task.getTitle() : "", String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BY_ID);
+
+    private Status status = Status.ALL;
+    // Texto buscado en minúsculas (null = cualquiera)
+    private String text;
+    private boolean textInDescription;
+    // Rangos en días desde epoch, ambos extremos incluidos; con rango de fecha
+    // límite solo entran las tareas que la tienen
+    private boolean dueRange;
+    private long dueFrom = Long.MIN_VALUE;
+    private long dueTo = Long.MAX_VALUE;
+    private long createdFrom = Long.MIN_VALUE;
+    private long createdTo = Long.MAX_VALUE;
+    private Sort sort = Sort.ID;
+    private boolean descending;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+    private String cursor;
+
+    private TaskQuery() {
+    }
+
+    // Todas las tareas en orden de alta
+    public static TaskQuery all() {
+        return new TaskQuery();
+    }
+
+    public TaskQuery withStatus(Status status) {
+        TaskQuery copy = copy();
+        copy.status = status;
+        return copy;
+    }
+
+    // Tareas cuyo título contiene el texto (sin distinguir mayúsculas); vacío = cualquiera
+    public TaskQuery withTitleContaining(String keyword) {
+        return withText(keyword, false);
+    }
+
+    // Tareas cuyo título o descripción contienen el texto
+    public TaskQuery withTextContaining(String keyword) {
+        return withText(keyword, true);
+    }
+
+    private TaskQuery withText(String keyword, boolean inDescription) {
+        TaskQuery copy = copy();
+        copy.text = keyword == null || keyword.trim().isEmpty() ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        copy.textInDescription = inDescription;
+        return copy;
+    }
+
+    // Fecha límite entre dos días (null = sin límite por ese lado)
+    public TaskQuery withDueBetween(LocalDate from, LocalDate to) {
+        TaskQuery copy = copy();
+        copy.dueRange = true;
+        copy.dueFrom = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        copy.dueTo = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        return copy;
+    }
+
+    // Fecha de creación entre dos días (null = sin límite por ese lado)
+    public TaskQuery withCreatedBetween(LocalDate from, LocalDate to) {
+        TaskQuery copy = copy();
+        copy.createdFrom = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        copy.createdTo = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        return copy;
+    }
+
+    public TaskQuery sortedBy(Sort sort, boolean descending) {
+        TaskQuery copy = copy();
+        copy.sort = sort;
+        copy.descending = descending;
+        copy.cursor = null;
+        return copy;
+    }
+
+    // Saltar "offset" resultados y devolver como mucho "limit"
+    public TaskQuery withPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Página no válida: " + offset + ", " + limit);
+        }
+        TaskQuery copy = copy();
+        copy.offset = offset;
+        copy.limit = limit;
+        return copy;
+    }
+
+    // Continuar tras la última tarea de una página anterior con el mismo orden
+    public TaskQuery after(String cursor) {
+        TaskQuery copy = copy();
+        copy.cursor = cursor == null || cursor.isEmpty() ? null : cursor;
+        return copy;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean isTextInDescription() {
+        return textInDescription;
+    }
+
+    boolean hasDueRange() {
+        return dueRange;
+    }
+
+    long getDueFrom() {
+        return dueFrom;
+    }
+
+    long getDueTo() {
+        return dueTo;
+    }
+
+    // Si la tarea cumple todas las condiciones (la página no cuenta)
+    public boolean matches(Task task) {
+        return matches(task, LocalDate.now().toEpochDay());
+    }
+
+    // Variante para recorridos: el día actual se obtiene una sola vez.
+    // El texto se comprueba al final porque es lo más caro (la descripción
+    // puede tener que leerse del archivo).
+    boolean matches(Task task, long today) {
+        switch (status) {
+            case PENDING:
+                if (task.isCompleted()) return false;
+                break;
+            case COMPLETED:
+                if (!task.isCompleted()) return false;
+                break;
+            case OVERDUE:
+                if (task.isCompleted() || !task.hasDueDate() || task.getDueEpochDay() >= today) return false;
+                break;
+            default:
+                break;
+        }
+        if (dueRange && (!task.hasDueDate() || task.getDueEpochDay() < dueFrom || task.getDueEpochDay() > dueTo)) {
+            return false;
+        }
+        if (task.getCreatedEpochDay() < createdFrom || task.getCreatedEpochDay() > createdTo) {
+            return false;
+        }
+        if (text == null) {
+            return true;
+        }
+        return contains(task.getTitle()) || textInDescription && contains(task.getDescription());
+    }
+
+    private boolean contains(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(text);
+    }
+
+    // Orden de los resultados
+    Comparator<Task> comparator() {
+        Comparator<Task> order;
+        switch (sort) {
+            case DUE_DATE:
+                order = BY_DUE_DATE;
+                break;
+            case CREATED_DATE:
+                order = BY_CREATED_DATE;
+                break;
+            case TITLE:
+                order = BY_TITLE;
+                break;
+            default:
+                order = BY_ID;
+                break;
+        }
+        return descending ? order.reversed() : order;
+    }
+
+    // Si los resultados de "previous" incluyen todos los de esta consulta: solo
+    // cambia el texto, que contiene el anterior (búsqueda mientras se escribe)
+    boolean narrows(TaskQuery previous) {
+        return previous.text != null && text != null && text.contains(previous.text)
+                && textInDescription == previous.textInDescription
+                && status == previous.status && sort == previous.sort && descending == previous.descending
+                && dueRange == previous.dueRange && dueFrom == previous.dueFrom && dueTo == previous.dueTo
+                && createdFrom == previous.createdFrom && createdTo == previous.createdTo
+                && offset == 0 && previous.offset == 0 && limit == Integer.MAX_VALUE
+                && previous.limit == Integer.MAX_VALUE && cursor == null && previous.cursor == null;
+    }
+
+    // Cursor: orden, id y la clave de orden de la última tarea, en Base64
+    String cursorAfter(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(sort.ordinal());
+            out.writeBoolean(descending);
+            out.writeLong(task.getId());
+            switch (sort) {
+                case DUE_DATE:
+                    out.writeInt(task.getDueEpochDay());
+                    break;
+                case CREATED_DATE:
+                    out.writeInt(task.getCreatedEpochDay());
+                    break;
+                case TITLE:
+                    TaskCodec.writeString(out, task.getTitle());
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // Tarea de referencia del cursor (solo con el id y la clave de orden), o null sin cursor
+    Task cursorTask() {
+        if (cursor == null) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + cursor);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readUnsignedByte() != sort.ordinal() || in.readBoolean() != descending) {
+                throw new IllegalArgumentException("El cursor corresponde a otro orden");
+            }
+            long id = in.readLong();
+            int dueDay = Task.NO_DATE;
+            int createdDay = 0;
+            String title = null;
+            switch (sort) {
+                case DUE_DATE:
+                    dueDay = in.readInt();
+                    break;
+                case CREATED_DATE:
+                    createdDay = in.readInt();
+                    break;
+                case TITLE:
+                    title = TaskCodec.readString(in);
+                    break;
+                default:
+                    break;
+            }
+            return Task.fromStorage(id, title, null, dueDay, createdDay, false);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + cursor);
+        }
+    }
+
+    private TaskQuery copy() {
+        TaskQuery copy = new TaskQuery();
+        copy.status = status;
+        copy.text = text;
+        copy.textInDescription = textInDescription;
+        copy.dueRange = dueRange;
+        copy.dueFrom = dueFrom;
+        copy.dueTo = dueTo;
+        copy.createdFrom = createdFrom;
+        copy.createdTo = createdTo;
+        copy.sort = sort;
+        copy.descending = descending;
+        copy.offset = offset;
+        copy.limit = limit;
+        copy.cursor = cursor;
+        return copy;
+    }
+}
@@ -0,0 +1,240 @@
+package gestortareas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Plan y ejecución de una TaskQuery sobre la lista y los índices del gestor
+ * (quien la usa tiene el bloqueo de lectura).
+ *
+ * Los candidatos salen de la fuente que se estima más pequeña: la lista
+ * completa, el índice de trigramas de los títulos (texto solo en el título)
+ * o el índice de fechas límite (pendientes o vencidas con rango de fechas).
+ * El resto de condiciones se comprueban sobre cada candidato.
+ *
+ * Si la fuente ya da los candidatos en el orden pedido (la lista y los
+ * títulos por id, las fechas límite por fecha), el recorrido termina al
+ * completar la página y el cursor se usa para empezar directamente tras la
+ * última tarea entregada. Si no, se conservan solo los offset + limit
+ * primeros en un montículo acotado. Salvo las coincidencias que devuelve el
+ * índice de títulos, no se copia más que la página.
+ */
+final class TaskQueryPlanner {
+    enum Source {
+        SCAN, TITLE_INDEX, DUE_DATE_INDEX
+    }
+
+    private final TaskQuery query;
+    private final List<Task> tasks;
+    private final TitleIndex titleIndex;
+    private final DueDateIndex dueDateIndex;
+    private final long today;
+    private Source source = Source.SCAN;
+    private int estimate;
+    // Rango del índice de fechas límite que cubre la consulta
+    private long dueFrom;
+    private long dueTo;
+
+    // titleIndex puede ser null si aún no se construyó
+    TaskQueryPlanner(TaskQuery query, List<Task> tasks, TitleIndex titleIndex, DueDateIndex dueDateIndex) {
+        this.query = query;
+        this.tasks = tasks;
+        this.titleIndex = titleIndex;
+        this.dueDateIndex = dueDateIndex;
+        this.today = dueDateIndex.getToday();
+        plan();
+    }
+
+    // Si a la consulta le sirve el índice de títulos (quien la ejecuta debe construirlo antes)
+    static boolean usesTitleIndex(TaskQuery query) {
+        return query.getText() != null && !query.isTextInDescription();
+    }
+
+    Source getSource() {
+        return source;
+    }
+
+    private void plan() {
+        estimate = tasks.size();
+        // El índice de fechas solo tiene las pendientes con fecha límite
+        TaskQuery.Status status = query.getStatus();
+        boolean overdue = status == TaskQuery.Status.OVERDUE;
+        if (overdue || status == TaskQuery.Status.PENDING && query.hasDueRange()) {
+            long from = query.hasDueRange() ? query.getDueFrom() : Long.MIN_VALUE;
+            long to = query.hasDueRange() ? query.getDueTo() : Long.MAX_VALUE;
+            if (overdue) {
+                to = Math.min(to, today - 1);
+            }
+            int count = dueDateIndex.countBetween(from, to);
+            if (count < estimate || count == estimate && query.getSort() == TaskQuery.Sort.DUE_DATE) {
+                source = Source.DUE_DATE_INDEX;
+                estimate = count;
+                dueFrom = from;
+                dueTo = to;
+            }
+        }
+        if (titleIndex != null && usesTitleIndex(query)) {
+            int count = titleIndex.estimate(query.getText());
+            if (count < estimate) {
+                source = Source.TITLE_INDEX;
+                estimate = count;
+            }
+        }
+    }
+
+    TaskPage execute() {
+        Comparator<Task> order = query.comparator();
+        Task cursor = query.cursorTask();
+        long wanted = (long) query.getOffset() + query.getLimit() + 1;
+        List<Task> matches = isOrdered()
+                ? firstMatches(candidates(cursor), order, cursor, wanted)
+                : topMatches(candidates(cursor), order, cursor, wanted);
+
+        int offset = Math.min(query.getOffset(), matches.size());
+        List<Task> page = matches.subList(offset, matches.size());
+        String nextCursor = null;
+        if (page.size() > query.getLimit()) {
+            page = page.subList(0, query.getLimit());
+            nextCursor = page.isEmpty() ? null : query.cursorAfter(page.get(page.size() - 1));
+        }
+        return new TaskPage(new ArrayList<>(page), nextCursor);
+    }
+
+    // Si la fuente entrega los candidatos en el orden pedido
+    private boolean isOrdered() {
+        switch (source) {
+            case DUE_DATE_INDEX:
+                return query.getSort() == TaskQuery.Sort.DUE_DATE;
+            default:
+                return query.getSort() == TaskQuery.Sort.ID;
+        }
+    }
+
+    private Iterator<Task> candidates(Task cursor) {
+        boolean descending = query.isDescending();
+        switch (source) {
+            case DUE_DATE_INDEX: {
+                long from = dueFrom;
+                long to = dueTo;
+                // Con el índice en orden, se empieza en el día de la última tarea entregada
+                if (cursor != null && isOrdered()) {
+                    if (!cursor.hasDueDate()) {
+                        // Las tareas sin fecha van al final: ascendente ya no queda ninguna del índice
+                        if (!descending) {
+                            return Collections.emptyIterator();
+                        }
+                    } else if (descending) {
+                        to = Math.min(to, cursor.getDueEpochDay());
+                    } else {
+                        from = Math.max(from, cursor.getDueEpochDay());
+                    }
+                }
+                return dueDateIndex.iterate(from, to, descending);
+            }
+            case TITLE_INDEX: {
+                List<Task> matches = titleIndex.search(query.getText());
+                return iterate(matches, descending ? matches.size() - 1 : 0);
+            }
+            default: {
+                int first = descending ? tasks.size() - 1 : 0;
+                if (cursor != null && isOrdered()) {
+                    // La lista está ordenada por id: se empieza justo tras el cursor
+                    first = descending
+                            ? firstPositionAfter(cursor.getId() - 1) - 1
+                            : firstPositionAfter(cursor.getId());
+                }
+                return iterate(tasks, first);
+            }
+        }
+    }
+
+    // Recorrer una lista desde una posición, hacia atrás si el orden es descendente
+    private Iterator<Task> iterate(List<Task> list, int first) {
+        boolean descending = query.isDescending();
+        return new Iterator<Task>() {
+            private int position = first;
+
+            @Override
+            public boolean hasNext() {
+                return descending ? position >= 0 : position < list.size();
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return list.get(descending ? position-- : position++);
+            }
+        };
+    }
+
+    // Posición de la primera tarea con id mayor que el indicado (la lista está ordenada por id)
+    private int firstPositionAfter(long id) {
+        int low = 0;
+        int high = tasks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tasks.get(middle).getId() <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Fuente en orden: los primeros que cumplen, y se deja de recorrer
+    private List<Task> firstMatches(Iterator<Task> candidates, Comparator<Task> order, Task cursor, long wanted) {
+        List<Task> matches = new ArrayList<>((int) Math.min(wanted, 1024));
+        while (matches.size() < wanted && candidates.hasNext()) {
+            Task task = candidates.next();
+            if (accepts(task, order, cursor)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    // Fuente sin orden: se guardan solo los "wanted" primeros según el orden pedido
+    private List<Task> topMatches(Iterator<Task> candidates, Comparator<Task> order, Task cursor, long wanted) {
+        if (wanted > estimate) {
+            // Caben todos: basta con ordenar al final
+            List<Task> matches = new ArrayList<>();
+            while (candidates.hasNext()) {
+                Task task = candidates.next();
+                if (accepts(task, order, cursor)) {
+                    matches.add(task);
+                }
+            }
+            matches.sort(order);
+            return matches;
+        }
+        // Montículo con el peor de los guardados en la cima
+        PriorityQueue<Task> best = new PriorityQueue<>((int) Math.max(wanted, 1), order.reversed());
+        while (candidates.hasNext()) {
+            Task task = candidates.next();
+            if (!accepts(task, order, cursor)) {
+                continue;
+            }
+            if (best.size() < wanted) {
+                best.add(task);
+            } else if (order.compare(task, best.peek()) < 0) {
+                best.poll();
+                best.add(task);
+            }
+        }
+        List<Task> matches = new ArrayList<>(best);
+        matches.sort(order);
+        return matches;
+    }
+
+    private boolean accepts(Task task, Comparator<Task> order, Task cursor) {
+        return (cursor == null || order.compare(task, cursor) > 0) && query.matches(task, today);
+    }
+}
@@ -0,0 +1,399 @@
+package gestortareas;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP del gestor de tareas (modo servidor, sin interfaz gráfica), sobre
+ * el servidor HTTP incluido en el JDK. Solo escucha en la interfaz local.
+ *
+ *   GET    /tasks?filter=pending|completed|overdue&q=título&text=título o descripción
+ *              &dueFrom=&dueTo=&createdFrom=&createdTo=yyyy-mm-dd
+ *              &sort=id|dueDate|created|title&order=asc|desc&offset=0&limit=100&cursor=...
+ *   GET    /tasks/search?q=palabras&filter=...&limit=20&prefix=true&typos=true
+ *   POST   /tasks                   {"title": ..., "description": ..., "dueDate": "yyyy-mm-dd"}
+ *   GET    /tasks/{id}
+ *   PUT    /tasks/{id}              {"title": ..., "description": ..., "dueDate": ...}
+ *   DELETE /tasks/{id}
+ *   POST   /tasks/{id}/complete
+ *   POST   /tasks/{id}/pending
+ *   GET    /stats
+ *
+ * Las listas se resuelven con TaskManager.query() en páginas de 100 tareas
+ * por defecto y como mucho 1000 (un limit mayor se reduce a 1000); si quedan
+ * más resultados, la cabecera X-Next-Cursor trae el cursor para pedir la
+ * página siguiente. Una tarea creada sin descripción la guarda vacía.
+ * /tasks/search devuelve las más relevantes para las palabras buscadas en el
+ * título y la descripción, de más a menos (TaskManager.searchTasks()).
+ *
+ * Cada petición se atiende en un hilo virtual si la JVM los tiene (Java 21+);
+ * si no, en un grupo fijo de hilos. El TaskManager es seguro entre hilos.
+ */
+public class TaskServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final TaskManager taskManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public TaskServer(TaskManager taskManager, int port) throws IOException {
+        // Sin TCP_NODELAY, las respuestas pequeñas (cabecera y cuerpo por separado)
+        // esperan al ACK retardado del cliente: unas decenas de ms por petición
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        this.taskManager = taskManager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    // Un hilo virtual por petición cuando existe Executors.newVirtualThreadPerTaskExecutor
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "servidor-tareas");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Dejar de aceptar peticiones (espera hasta un segundo a las que están en curso)
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    // /tasks y /tasks/{id}[/complete|/pending]
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        try {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            // El contexto "/tasks" también recibe rutas como /tasksfoo
+            if (parts.length < 2 || !parts[1].equals("tasks")) {
+                sendError(exchange, 404, "Ruta no encontrada");
+                return;
+            }
+            if (parts.length == 2) {
+                if (method.equals("GET")) {
+                    listTasks(exchange);
+                } else if (method.equals("POST")) {
+                    createTask(exchange);
+                } else {
+                    sendError(exchange, 405, "Método no permitido");
+                }
+                return;
+            }
+            if (parts.length == 3 && parts[2].equals("search")) {
+                if (method.equals("GET")) {
+                    searchTasks(exchange);
+                } else {
+                    sendError(exchange, 405, "Método no permitido");
+                }
+                return;
+            }
+
+            long id = parseId(parts[2]);
+            if (parts.length == 3) {
+                switch (method) {
+                    case "GET":
+                        sendTask(exchange, 200, taskManager.getTaskById(id));
+                        break;
+                    case "PUT":
+                        Map<String, Object> body = readBody(exchange);
+                        String title = requireTitle(body);
+                        sendTask(exchange, 200, taskManager.updateTaskById(id, title,
+                                description(body), TaskJson.getDate(body, "dueDate")));
+                        break;
+                    case "DELETE":
+                        if (taskManager.removeTaskById(id)) {
+                            send(exchange, 204, null);
+                        } else {
+                            sendError(exchange, 404, "Tarea no encontrada");
+                        }
+                        break;
+                    default:
+                        sendError(exchange, 405, "Método no permitido");
+                        break;
+                }
+            } else if (parts.length == 4 && method.equals("POST") && parts[3].equals("complete")) {
+                sendTask(exchange, 200, taskManager.markTaskAsCompletedById(id));
+            } else if (parts.length == 4 && method.equals("POST") && parts[3].equals("pending")) {
+                sendTask(exchange, 200, taskManager.markTaskAsPendingById(id));
+            } else {
+                sendError(exchange, 404, "Ruta no encontrada");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "Error interno: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().equals("/stats")) {
+                sendError(exchange, 404, "Ruta no encontrada");
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Método no permitido");
+                return;
+            }
+            String json = "{\"total\":" + taskManager.getTotalTasksCount()
+                    + ",\"pending\":" + taskManager.getPendingTasksCount()
+                    + ",\"completed\":" + taskManager.getCompletedTasksCount()
+                    + ",\"overdue\":" + taskManager.getOverdueTasksCount() + "}";
+            send(exchange, 200, json);
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "Error interno: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Lista filtrada, buscada y ordenada, paginada con offset/limit o con
+    // cursor. Se escribe directamente en la respuesta, sin construir el JSON
+    // completo en memoria.
+    private void listTasks(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        TaskQuery query = TaskQuery.all()
+                .withStatus(parseStatus(parameters.getOrDefault("filter", "all")))
+                .sortedBy(parseSort(parameters.getOrDefault("sort", "id")), parseOrder(parameters.get("order")))
+                .withPage(parseInt(parameters.get("offset"), 0),
+                        Math.min(parseInt(parameters.get("limit"), DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE))
+                .after(parameters.get("cursor"));
+        if (parameters.containsKey("text")) {
+            query = query.withTextContaining(parameters.get("text"));
+        } else {
+            query = query.withTitleContaining(parameters.get("q"));
+        }
+        if (parameters.containsKey("dueFrom") || parameters.containsKey("dueTo")) {
+            query = query.withDueBetween(parseDate(parameters, "dueFrom"), parseDate(parameters, "dueTo"));
+        }
+        if (parameters.containsKey("createdFrom") || parameters.containsKey("createdTo")) {
+            query = query.withCreatedBetween(parseDate(parameters, "createdFrom"), parseDate(parameters, "createdTo"));
+        }
+        TaskPage page = taskManager.query(query);
+        if (page.hasMore()) {
+            exchange.getResponseHeaders().set("X-Next-Cursor", page.getNextCursor());
+        }
+        sendTasks(exchange, page.getTasks());
+    }
+
+    // Búsqueda por relevancia: las "limit" mejores, de más a menos relevante
+    private void searchTasks(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        TextSearch search = TextSearch.of(parameters.get("q"))
+                .withStatus(parseStatus(parameters.getOrDefault("filter", "all")))
+                .withLimit(Math.min(parseInt(parameters.get("limit"), TextSearch.DEFAULT_LIMIT), MAX_PAGE_SIZE))
+                .withPrefixes(parseBoolean(parameters, "prefix"))
+                .withTypoTolerance(parseBoolean(parameters, "typos"));
+        sendTasks(exchange, taskManager.searchTasks(search));
+    }
+
+    private static void sendTasks(HttpExchange exchange, List<Task> tasks) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE)) {
+            out.write('[');
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                TaskJson.writeTask(out, tasks.get(i));
+            }
+            out.write(']');
+        }
+    }
+
+    private void createTask(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String title = requireTitle(body);
+        Task task = taskManager.addTask(title, description(body), TaskJson.getDate(body, "dueDate"));
+        sendTask(exchange, 201, task);
+    }
+
+    private static String requireTitle(Map<String, Object> body) {
+        String title = TaskJson.getString(body, "title");
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("El título es obligatorio");
+        }
+        return title;
+    }
+
+    // Sin descripción se guarda vacía, como en la importación (TaskImporter)
+    private static String description(Map<String, Object> body) {
+        String description = TaskJson.getString(body, "description");
+        return description != null ? description : "";
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return TaskJson.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static long parseId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Identificador no válido: " + text);
+        }
+    }
+
+    private static int parseInt(String text, int defaultValue) {
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(text);
+            if (value < 0) {
+                throw new IllegalArgumentException("Se esperaba un número positivo: " + text);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número no válido: " + text);
+        }
+    }
+
+    private static TaskQuery.Status parseStatus(String filter) {
+        switch (filter) {
+            case "all":
+                return TaskQuery.Status.ALL;
+            case "pending":
+                return TaskQuery.Status.PENDING;
+            case "completed":
+                return TaskQuery.Status.COMPLETED;
+            case "overdue":
+                return TaskQuery.Status.OVERDUE;
+            default:
+                throw new IllegalArgumentException("Filtro desconocido: " + filter);
+        }
+    }
+
+    private static TaskQuery.Sort parseSort(String sort) {
+        switch (sort) {
+            case "id":
+                return TaskQuery.Sort.ID;
+            case "dueDate":
+                return TaskQuery.Sort.DUE_DATE;
+            case "created":
+                return TaskQuery.Sort.CREATED_DATE;
+            case "title":
+                return TaskQuery.Sort.TITLE;
+            default:
+                throw new IllegalArgumentException("Orden desconocido: " + sort);
+        }
+    }
+
+    // true = descendente
+    private static boolean parseOrder(String order) {
+        if (order == null || order.equals("asc")) {
+            return false;
+        }
+        if (order.equals("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Orden no válido: " + order);
+    }
+
+    private static LocalDate parseDate(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida en " + name + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.equals("false")) {
+            return false;
+        }
+        if (value.isEmpty() || value.equals("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Valor no válido en " + name + ": " + value);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals == -1 ? pair : pair.substring(0, equals);
+            String value = equals == -1 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        if (task == null) {
+            sendError(exchange, 404, "Tarea no encontrada");
+        } else {
+            send(exchange, status, TaskJson.toJson(task));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        TaskJson.writeString(json, message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package gestortareas;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Motor de almacenamiento de las tareas.
+ *
+ * El TaskManager trabaja sobre la lista devuelta por load() y, tras cada
+ * cambio que hace en ella, avisa al almacenamiento para que lo persista.
+ */
+public interface TaskStore {
+
+    // Cargar las tareas guardadas; la lista devuelta es la que usa el gestor
+    List<Task> load();
+
+    // Notificaciones de cambios ya aplicados sobre la lista
+    void taskAdded(Task task);
+
+    void taskUpdated(Task task);
+
+    void taskStatusChanged(Task task);
+
+    void taskRemoved(Task task);
+
+    void completedTasksCleared();
+
+    // Los cambios notificados entre beginBatch() y endBatch() se pueden
+    // persistir juntos, en una sola escritura al terminar el lote
+    default void beginBatch() {
+    }
+
+    default void endBatch() {
+    }
+
+    // Aviso de cada error de lectura o escritura (además de mostrarse en System.err)
+    default void setErrorListener(Consumer<String> listener) {
+    }
+
+    // Bytes escritos en disco desde que se abrió el almacenamiento
+    default long getBytesWritten() {
+        return 0;
+    }
+
+    // Guardar el estado completo
+    void save();
+
+    // Liberar archivos abiertos
+    void close();
+}
@@ -0,0 +1,91 @@
+package gestortareas;
+
+/**
+ * Búsqueda por relevancia para TaskManager.searchTasks(): palabras buscadas
+ * en el título y la descripción, estado y número de resultados.
+ *
+ * Basta con que una tarea contenga alguna de las palabras; salen primero las
+ * que contienen más, las más raras y las que las tienen en el título (ver
+ * FullTextIndex). Opcionalmente una palabra encuentra también las que
+ * empiezan por ella ("inform" encuentra "informe") o las que se diferencian
+ * en una letra ("reunion" encuentra "reunión" y "reuinon").
+ *
+ * Es inmutable, como TaskQuery: cada with... devuelve una copia.
+ */
+public final class TextSearch {
+    public static final int DEFAULT_LIMIT = 20;
+
+    private final String text;
+    private TaskQuery.Status status = TaskQuery.Status.ALL;
+    private int limit = DEFAULT_LIMIT;
+    private boolean prefixes;
+    private boolean typoTolerant;
+
+    private TextSearch(String text) {
+        this.text = text == null ? "" : text;
+    }
+
+    public static TextSearch of(String text) {
+        return new TextSearch(text);
+    }
+
+    public TextSearch withStatus(TaskQuery.Status status) {
+        TextSearch copy = copy();
+        copy.status = status;
+        return copy;
+    }
+
+    // Número máximo de resultados (los mejores)
+    public TextSearch withLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Límite no válido: " + limit);
+        }
+        TextSearch copy = copy();
+        copy.limit = limit;
+        return copy;
+    }
+
+    // Cada palabra encuentra también las que empiezan por ella
+    public TextSearch withPrefixes(boolean prefixes) {
+        TextSearch copy = copy();
+        copy.prefixes = prefixes;
+        return copy;
+    }
+
+    // Cada palabra encuentra también las que se diferencian en una letra
+    // (dos en las de ocho letras o más)
+    public TextSearch withTypoTolerance(boolean typoTolerant) {
+        TextSearch copy = copy();
+        copy.typoTolerant = typoTolerant;
+        return copy;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public TaskQuery.Status getStatus() {
+        return status;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean usesPrefixes() {
+        return prefixes;
+    }
+
+    public boolean isTypoTolerant() {
+        return typoTolerant;
+    }
+
+    private TextSearch copy() {
+        TextSearch copy = new TextSearch(text);
+        copy.status = status;
+        copy.limit = limit;
+        copy.prefixes = prefixes;
+        copy.typoTolerant = typoTolerant;
+        return copy;
+    }
+}
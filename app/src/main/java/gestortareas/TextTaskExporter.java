@@ -0,0 +1,76 @@
+package gestortareas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Exportación a texto plano: tareas pendientes y después completadas.
+ *
+ * Las secciones llevan la cantidad de tareas en su título, que TaskManager
+ * pasa con sus contadores; la lista se recorre una vez por sección en lugar
+ * de copiar cada grupo, así que la memoria usada no depende del número de
+ * tareas. Sin los contadores, primero se cuentan las completadas.
+ */
+public class TextTaskExporter implements TaskExporter {
+    private static final String NEWLINE = System.lineSeparator();
+
+    @Override
+    public String getFileExtension() {
+        return "txt";
+    }
+
+    @Override
+    public void export(List<Task> tasks, Writer out) throws IOException {
+        int completedCount = 0;
+        for (Task task : tasks) {
+            if (task.isCompleted()) {
+                completedCount++;
+            }
+        }
+        export(tasks, completedCount, out);
+    }
+
+    @Override
+    public void export(List<Task> tasks, int completedCount, Writer out) throws IOException {
+        LocalDate today = LocalDate.now();
+        out.write("=== GESTOR DE TAREAS ===" + NEWLINE);
+        out.write("Fecha de exportación: " + today + NEWLINE);
+        out.write(NEWLINE);
+
+        out.write("TAREAS PENDIENTES (" + (tasks.size() - completedCount) + "):" + NEWLINE);
+        out.write("=====================================" + NEWLINE);
+        for (Task task : tasks) {
+            if (!task.isCompleted()) {
+                writeTask(out, "• ", task);
+                if (task.isDueDateExpired(today)) {
+                    out.write("  *** VENCIDA ***");
+                    out.write(NEWLINE);
+                }
+                out.write(NEWLINE);
+            }
+        }
+
+        out.write("TAREAS COMPLETADAS (" + completedCount + "):" + NEWLINE);
+        out.write("=======================================" + NEWLINE);
+        for (Task task : tasks) {
+            if (task.isCompleted()) {
+                writeTask(out, "✓ ", task);
+                out.write(NEWLINE);
+            }
+        }
+    }
+
+    private static void writeTask(Writer out, String bullet, Task task) throws IOException {
+        out.write(bullet);
+        out.write(String.valueOf(task.getTitle()));
+        out.write(NEWLINE);
+        out.write("  Descripción: ");
+        out.write(String.valueOf(task.getDescription()));
+        out.write(NEWLINE);
+        out.write("  Fecha límite: ");
+        out.write(task.getFormattedDueDate());
+        out.write(NEWLINE);
+    }
+}
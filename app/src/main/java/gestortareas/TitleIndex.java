@@ -0,0 +1,253 @@
+package gestortareas;
+
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * Índice invertido de trigramas sobre los títulos de las tareas.
+ *
+ * Cada tarea recibe un número de documento creciente (el orden de inserción)
+ * y cada trigrama del título en minúsculas apunta a la lista ordenada de
+ * documentos que lo contienen. Una búsqueda de subcadena intersecta las
+ * listas de los trigramas de la palabra clave y solo comprueba con contains()
+ * los candidatos que quedan. Las palabras de menos de tres caracteres se
+ * resuelven recorriendo los títulos ya guardados en minúsculas.
+ *
+ * El índice se actualiza con cada alta, cambio de título y baja. Las
+ * búsquedas no lo modifican, así que pueden ejecutarse a la vez. Como
+ * DueDateIndex, guarda solo los ids: las tareas encontradas se piden al
+ * gestor, así el almacenamiento mapeado no las tiene todas en el heap.
+ */
+public class TitleIndex {
+    private static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    // Número de documento de cada tarea, por id
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    // Por número de documento: el id de la tarea y su título en minúsculas (null si se eliminó)
+    private long[] ids = new long[16];
+    private String[] titles = new String[16];
+    private int nextDoc;
+    // Tarea actual con un id (la del gestor)
+    private final LongFunction<Task> lookup;
+
+    public TitleIndex(LongFunction<Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    // Indexar una tarea nueva
+    public void add(Task task) {
+        add(task.getId(), normalize(task.getTitle()));
+    }
+
+    private void add(long id, String title) {
+        if (nextDoc == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            titles = Arrays.copyOf(titles, titles.length * 2);
+        }
+        int doc = nextDoc++;
+        ids[doc] = id;
+        docIds.put(id, doc);
+        indexTitle(doc, title);
+    }
+
+    // Quitar una tarea del índice
+    public void remove(Task task) {
+        Integer doc = docIds.remove(task.getId());
+        if (doc == null) {
+            return;
+        }
+        unindexTitle(doc);
+        compactIfSparse();
+    }
+
+    // Sustituir una tarea por su nueva versión, reindexando el título si cambió
+    public void replace(Task previous, Task task) {
+        Integer doc = docIds.get(previous.getId());
+        if (doc == null) {
+            add(task);
+            return;
+        }
+        String title = normalize(task.getTitle());
+        if (!title.equals(titles[doc])) {
+            unindexTitle(doc);
+            indexTitle(doc, title);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        docIds.clear();
+        ids = new long[16];
+        titles = new String[16];
+        nextDoc = 0;
+    }
+
+    // Tareas cuyo título contiene la palabra clave (sin distinguir mayúsculas),
+    // en orden de inserción
+    public List<Task> search(String keyword) {
+        String query = normalize(keyword);
+        List<Task> results = new ArrayList<>();
+        if (query.length() < GRAM) {
+            for (int doc = 0; doc < nextDoc; doc++) {
+                if (titles[doc] != null && titles[doc].contains(query)) {
+                    addTask(results, doc);
+                }
+            }
+            return results;
+        }
+
+        // Listas de los trigramas de la consulta, de la más corta a la más larga
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            grams.add(gram(query, i));
+        }
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return results;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+
+        // Solo se verifican los candidatos (los trigramas pueden no ser contiguos)
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            if (titles[doc].contains(query)) {
+                addTask(results, doc);
+            }
+        }
+        return results;
+    }
+
+    // Cota superior de los resultados de search() sin recorrer nada: la lista
+    // de trigramas más corta de la palabra clave (todas las tareas si es corta)
+    public int estimate(String keyword) {
+        String query = normalize(keyword);
+        if (query.length() < GRAM) {
+            return docIds.size();
+        }
+        int smallest = docIds.size();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            PostingList list = postings.get(gram(query, i));
+            if (list == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, list.size);
+        }
+        return smallest;
+    }
+
+    private void addTask(List<Task> results, int doc) {
+        Task task = lookup.apply(ids[doc]);
+        if (task != null) {
+            results.add(task);
+        }
+    }
+
+    private void indexTitle(int doc, String title) {
+        titles[doc] = title;
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + GRAM <= title.length(); i++) {
+            long gram = gram(title, i);
+            if (seen.add(gram)) {
+                postings.computeIfAbsent(gram, k -> new PostingList()).add(doc);
+            }
+        }
+    }
+
+    private void unindexTitle(int doc) {
+        String title = titles[doc];
+        for (int i = 0; i + GRAM <= title.length(); i++) {
+            long gram = gram(title, i);
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        titles[doc] = null;
+    }
+
+    // Renumerar los documentos cuando más de la mitad son huecos de tareas eliminadas
+    private void compactIfSparse() {
+        if (nextDoc < 1024 || docIds.size() * 2 > nextDoc) {
+            return;
+        }
+        long[] liveIds = new long[docIds.size()];
+        String[] liveTitles = new String[liveIds.length];
+        int count = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (titles[doc] != null) {
+                liveIds[count] = ids[doc];
+                liveTitles[count++] = titles[doc];
+            }
+        }
+        clear();
+        for (int i = 0; i < count; i++) {
+            add(liveIds[i], liveTitles[i]);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    // Lista ordenada de números de documento
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int position = size == 0 || docs[size - 1] < doc ? size : Arrays.binarySearch(docs, 0, size, doc);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            docs[position] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        // Deja en candidates solo los documentos presentes en esta lista
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(docs, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
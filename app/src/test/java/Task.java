@@ -0,0 +1,25 @@
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * La clase Task del paquete por defecto, tal como la guardaban las primeras
+ * versiones con la serialización de Java. Solo sirve para escribir archivos
+ * antiguos en las pruebas de TaskFileMigrator.
+ */
+public class Task implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+    private boolean completed;
+    private LocalDate createdDate;
+
+    public Task(String title, String description, LocalDate dueDate, boolean completed, LocalDate createdDate) {
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.completed = completed;
+        this.createdDate = createdDate;
+    }
+}
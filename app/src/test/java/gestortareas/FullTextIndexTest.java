@@ -0,0 +1,193 @@
+package gestortareas;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Las búsquedas de texto del índice coinciden con un cálculo de BM25 por
+ * fuerza bruta sobre todas las tareas (mismos pesos para el título, los
+ * prefijos y las erratas), también después de altas, bajas y cambios.
+ */
+class FullTextIndexTest {
+    private static final String[] VOCABULARY = { "reunión", "Reunion", "informe", "informes", "información",
+            "canción", "cancion", "revisar", "revisión", "presupuesto", "presupuestos", "año", "ano", "llamar",
+            "cliente", "clientes", "factura", "facturas", "entrega", "entregar", "diseño", "diseno", "código",
+            "pruebas", "prueba", "de", "la", "el", "para", "mañana", "semana", "semanal", "mensual", "proyecto",
+            "proyectos", "reuinon" };
+    private static final int TASKS = 1500;
+    private static final int ROUNDS = 800;
+
+    @Test
+    void rankingMatchesBruteForce() {
+        TaskManager manager = new TaskManager(new MemoryTaskStore());
+        Random random = new Random(42);
+        for (int i = 0; i < TASKS; i++) {
+            manager.addTask(text(random, 1 + random.nextInt(4)),
+                    random.nextInt(3) == 0 ? null : text(random, random.nextInt(12)),
+                    random.nextBoolean() ? LocalDate.now().plusDays(random.nextInt(20) - 10) : null);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            change(manager, random, round);
+
+            String text = text(random, 1 + random.nextInt(3));
+            if (random.nextInt(4) == 0) {
+                text = text.substring(0, Math.max(1, text.length() - 2));
+            }
+            boolean prefixes = random.nextBoolean();
+            boolean typoTolerant = random.nextBoolean();
+            TaskQuery.Status status = TaskQuery.Status.values()[random.nextInt(TaskQuery.Status.values().length)];
+            int limit = 1 + random.nextInt(30);
+            List<Task> found = manager.searchTasks(TextSearch.of(text).withLimit(limit).withPrefixes(prefixes)
+                    .withTypoTolerance(typoTolerant).withStatus(status));
+
+            Map<Long, Double> expected = bruteForce(manager.getAllTasks(), text, prefixes, typoTolerant, status);
+            List<Map.Entry<Long, Double>> ranking = new ArrayList<>(expected.entrySet());
+            ranking.sort((a, b) -> a.getValue().equals(b.getValue()) ? Long.compare(a.getKey(), b.getKey())
+                    : Double.compare(b.getValue(), a.getValue()));
+            String context = "búsqueda \"" + text + "\" (ronda " + round + ")";
+            assertEquals(Math.min(limit, ranking.size()), found.size(), context);
+            for (int i = 0; i < found.size(); i++) {
+                Task task = found.get(i);
+                Double score = expected.get(task.getId());
+                assertNotNull(score, context);
+                // Con puntuaciones iguales el orden puede variar: se compara la puntuación de cada puesto
+                assertEquals(ranking.get(i).getValue(), score, 1e-4 * Math.max(1, score), context);
+                assertSame(manager.getTaskById(task.getId()), task, context);
+            }
+        }
+        manager.close();
+    }
+
+    // Un cambio al azar antes de cada búsqueda
+    private static void change(TaskManager manager, Random random, int round) {
+        List<Task> all = manager.getAllTasks();
+        int operation = random.nextInt(10);
+        if (operation < 3 || all.isEmpty()) {
+            manager.addTask(text(random, 1 + random.nextInt(4)), text(random, random.nextInt(8)), null);
+        } else if (operation < 5) {
+            Task task = all.get(random.nextInt(all.size()));
+            if (task.isCompleted()) {
+                manager.markTaskAsPendingById(task.getId());
+            } else {
+                manager.markTaskAsCompletedById(task.getId());
+            }
+        } else if (operation < 6) {
+            Task task = all.get(random.nextInt(all.size()));
+            manager.updateTaskById(task.getId(), text(random, 1 + random.nextInt(3)), text(random, random.nextInt(6)),
+                    task.getDueDate());
+        } else if (operation < 8) {
+            manager.removeTaskById(all.get(random.nextInt(all.size())).getId());
+        } else if (round % 500 == 0) {
+            manager.clearCompletedTasks();
+        }
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(random.nextBoolean() ? " " : ", ");
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+
+    // BM25 recorriendo todas las tareas: el título cuenta doble, cada palabra
+    // de la búsqueda aporta su mejor término (exacto, prefijo o errata) y las
+    // palabras repetidas en la búsqueda cuentan una vez
+    private static Map<Long, Double> bruteForce(List<Task> tasks, String text, boolean prefixes,
+            boolean typoTolerant, TaskQuery.Status status) {
+        Map<Long, Map<String, Integer>> frequencies = new HashMap<>();
+        Map<Long, Integer> lengths = new HashMap<>();
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (Task task : tasks) {
+            Map<String, Integer> terms = new HashMap<>();
+            int length = 0;
+            for (String word : FullTextIndex.tokenize(task.getTitle())) {
+                terms.merge(word, 2, Integer::sum);
+                length += 2;
+            }
+            for (String word : FullTextIndex.tokenize(task.getDescription())) {
+                terms.merge(word, 1, Integer::sum);
+                length++;
+            }
+            frequencies.put(task.getId(), terms);
+            lengths.put(task.getId(), length);
+            totalLength += length;
+            for (String term : terms.keySet()) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        int count = tasks.size();
+        double averageLength = Math.max(1.0, (double) totalLength / count);
+        TaskQuery filter = TaskQuery.all().withStatus(status);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String word : new LinkedHashSet<>(FullTextIndex.tokenize(text))) {
+            Map<String, Double> expansions = new HashMap<>();
+            for (String term : documentFrequencies.keySet()) {
+                double weight = term.equals(word) ? 1 : 0;
+                if (prefixes && word.length() >= 2 && !term.equals(word) && term.startsWith(word)) {
+                    weight = Math.max(weight, 0.7);
+                }
+                if (typoTolerant && word.length() >= 4 && !term.equals(word) && term.charAt(0) == word.charAt(0)
+                        && editDistance(word, term) <= (word.length() >= 8 ? 2 : 1)) {
+                    weight = Math.max(weight, 0.5);
+                }
+                if (weight > 0) {
+                    expansions.put(term, weight);
+                }
+            }
+            for (Task task : tasks) {
+                double best = 0;
+                for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+                    Integer frequency = frequencies.get(task.getId()).get(expansion.getKey());
+                    if (frequency == null) {
+                        continue;
+                    }
+                    int documents = documentFrequencies.get(expansion.getKey());
+                    double idf = Math.log(1 + (count - documents + 0.5) / (documents + 0.5));
+                    double norm = 1.2 * (1 - 0.75 + 0.75 * lengths.get(task.getId()) / averageLength);
+                    best = Math.max(best, expansion.getValue() * idf * 2.2 * frequency / (frequency + norm));
+                }
+                if (best > 0 && filter.matches(task)) {
+                    scores.merge(task.getId(), best, Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    // Distancia de edición con transposiciones de letras vecinas
+    private static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
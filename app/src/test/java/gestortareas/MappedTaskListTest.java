@@ -0,0 +1,182 @@
+package gestortareas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cambios sobre la lista mapeada: las nuevas versiones van a registros
+ * nuevos, un cierre inesperado a mitad de un cambio o de una compactación se
+ * recupera al abrir y el espacio descartado se recupera al compactar.
+ */
+class MappedTaskListTest {
+    private static final LocalDate CREATED = LocalDate.of(2025, 5, 10);
+    // Posición de los flags del primer registro: cabecera de 64 bytes
+    private static final int FIRST_RECORD_FLAGS = 64;
+    private static final int HEADER_FLAGS = 24;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void changesSurviveReopen() throws IOException {
+        try (MappedTaskList list = open()) {
+            list.add(task(1, "Primera", "Uno", false));
+            list.add(task(2, "Segunda", null, false));
+            list.add(task(3, "Tercera", "Tres", false));
+            list.set(1, task(2, "Segunda cambiada", "Ahora con descripción", false));
+            list.set(0, task(1, "Primera", "Uno", true));
+            list.remove(2);
+        }
+        try (MappedTaskList list = open()) {
+            assertEquals(List.of(1L, 2L), ids(list));
+            assertTrue(list.get(0).isCompleted());
+            assertEquals("Uno", list.get(0).getDescription());
+            assertEquals("Segunda cambiada", list.get(1).getTitle());
+            assertEquals("Ahora con descripción", list.get(1).getDescription());
+            assertEquals(1, list.indexOfId(2));
+        }
+    }
+
+    // delete() persiste el borrado al momento; la lista se limpia después
+    @Test
+    void deletedRecordsStayUntilRemoved() throws IOException {
+        try (MappedTaskList list = open()) {
+            for (int i = 1; i <= 5; i++) {
+                list.add(task(i, "Tarea " + i, null, false));
+            }
+            list.delete(1);
+            list.delete(3);
+            assertEquals(5, list.size());
+            assertNull(list.findById(2));
+            assertEquals("Tarea 3", list.findById(3).getTitle());
+            list.removeDeleted();
+            assertEquals(List.of(1L, 3L, 5L), ids(list));
+            list.delete(0);
+        }
+        try (MappedTaskList list = open()) {
+            assertEquals(List.of(3L, 5L), ids(list));
+        }
+    }
+
+    // Cierre entre escribir la nueva versión y marcar la anterior como borrada
+    @Test
+    void interruptedUpdateKeepsNewestVersion() throws IOException {
+        try (MappedTaskList list = open()) {
+            list.add(task(1, "Antes", null, false));
+            list.add(task(2, "Otra", null, false));
+            list.set(0, task(1, "Después", null, false));
+        }
+        try (RandomAccessFile index = new RandomAccessFile(indexFile(), "rw")) {
+            index.seek(FIRST_RECORD_FLAGS);
+            index.write(0);
+        }
+        try (MappedTaskList list = open()) {
+            assertEquals(List.of(1L, 2L), ids(list));
+            assertEquals("Después", list.get(0).getTitle());
+        }
+        try (MappedTaskList list = open()) {
+            assertEquals(List.of(1L, 2L), ids(list));
+        }
+    }
+
+    @Test
+    void discardedSpaceIsReclaimed() throws IOException {
+        String description = "x".repeat(100_000);
+        try (MappedTaskList list = open()) {
+            list.add(task(1, "Fija", "Sin cambios", false));
+            list.add(task(2, "Nueva", null, false));
+            for (int i = 0; i < 200; i++) {
+                list.set(list.size() - 1, task(list.size(), "Versión " + i, description + i, false));
+                if (i % 50 == 0) {
+                    list.add(task(list.size() + 1, "Nueva " + i, null, false));
+                }
+            }
+            // Sin compactar serían 20 MB de textos
+            assertTrue(heapFile().length() <= 4 << 20, "archivo de textos de " + heapFile().length());
+            checkContents(list, description);
+        }
+        try (MappedTaskList list = open()) {
+            checkContents(list, description);
+        }
+    }
+
+    // Cierre entre poner el índice compactado en su sitio y su archivo de textos
+    @Test
+    void interruptedCompactionIsCompleted() throws IOException {
+        try (MappedTaskList list = open()) {
+            list.add(task(1, "Primera", "Uno", false));
+            list.add(task(2, "Segunda", "Dos", false));
+        }
+        File heapTmp = new File(heapFile().getPath() + ".tmp");
+        Files.copy(heapFile().toPath(), heapTmp.toPath());
+        Files.write(heapFile().toPath(), new byte[16]);
+        try (RandomAccessFile index = new RandomAccessFile(indexFile(), "rw")) {
+            index.seek(HEADER_FLAGS);
+            index.writeInt(1);
+        }
+        try (MappedTaskList list = open()) {
+            assertEquals("Uno", list.get(0).getDescription());
+            assertEquals("Dos", list.get(1).getDescription());
+        }
+        assertFalse(heapTmp.exists());
+
+        // Sin la marca, un .tmp que quedó a medias se descarta
+        Files.write(heapTmp.toPath(), new byte[16]);
+        try (MappedTaskList list = open()) {
+            assertEquals("Segunda", list.get(1).getTitle());
+        }
+        assertFalse(heapTmp.exists());
+    }
+
+    private static void checkContents(MappedTaskList list, String description) {
+        assertEquals("Sin cambios", list.get(0).getDescription());
+        Task last = list.get(list.size() - 1);
+        assertEquals("Versión 199", last.getTitle());
+        assertEquals(description + 199, last.getDescription());
+        for (int i = 1; i < list.size() - 1; i++) {
+            assertTrue(list.get(i).getTitle().startsWith("Versión "));
+        }
+        List<Long> ids = ids(list);
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, ids.get(i));
+        }
+    }
+
+    private MappedTaskList open() throws IOException {
+        return new MappedTaskList(indexFile(), heapFile());
+    }
+
+    private File indexFile() {
+        return dir.resolve("tasks.idx").toFile();
+    }
+
+    private File heapFile() {
+        return dir.resolve("tasks.txt").toFile();
+    }
+
+    private static Task task(long id, String title, String description, boolean completed) {
+        return new Task(id, title, description, null, CREATED, completed);
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,147 @@
+package gestortareas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga de los formatos antiguos de tasks.dat: serialización de Java
+ * (migrada al formato binario con copia .bak) y versiones 1 y 2 del formato
+ * binario, que se leen tal cual y se reescriben al guardar.
+ */
+class TaskFileMigratorTest {
+    private static final LocalDate CREATED = LocalDate.of(2024, 11, 5);
+    private static final LocalDate DUE = LocalDate.of(2024, 12, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void legacySerializedFileIsMigrated() throws Exception {
+        File dataFile = dir.resolve("tasks.dat").toFile();
+        List<Serializable> legacy = new ArrayList<>();
+        legacy.add(legacyTask("Comprar pan", "Integral", DUE, false, CREATED));
+        legacy.add(legacyTask("Llamar", null, null, true, null));
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(dataFile))) {
+            out.writeObject(legacy);
+        }
+
+        assertTrue(TaskFileMigrator.migrateIfNeeded(dataFile));
+        assertTrue(TaskCodec.isBinaryFile(dataFile));
+        assertTrue(new File(dataFile.getPath() + ".bak").exists());
+        assertFalse(TaskFileMigrator.migrateIfNeeded(dataFile));
+
+        List<Task> tasks = load(dataFile);
+        assertEquals(2, tasks.size());
+        Task first = tasks.get(0);
+        assertEquals(1, first.getId());
+        assertEquals("Comprar pan", first.getTitle());
+        assertEquals("Integral", first.getDescription());
+        assertEquals(DUE, first.getDueDate());
+        assertEquals(CREATED, first.getCreatedDate());
+        assertFalse(first.isCompleted());
+        Task second = tasks.get(1);
+        assertEquals(2, second.getId());
+        assertNull(second.getDescription());
+        assertNull(second.getDueDate());
+        assertTrue(second.isCompleted());
+    }
+
+    @Test
+    void versionOneFileGetsIdsByPosition() throws IOException {
+        File dataFile = dir.resolve("tasks.dat").toFile();
+        writeOldVersion(dataFile, 1);
+        checkOldVersion(dataFile, 1, 2);
+    }
+
+    @Test
+    void versionTwoFileKeepsItsIds() throws IOException {
+        File dataFile = dir.resolve("tasks.dat").toFile();
+        writeOldVersion(dataFile, 2);
+        checkOldVersion(dataFile, 10, 20);
+    }
+
+    // Tras cargarlo y guardar, el archivo queda en la versión actual con las mismas tareas
+    private void checkOldVersion(File dataFile, long firstId, long secondId) throws IOException {
+        List<Task> tasks = load(dataFile);
+        assertEquals(List.of(firstId, secondId), List.of(tasks.get(0).getId(), tasks.get(1).getId()));
+        assertEquals("Informe", tasks.get(0).getTitle());
+        assertEquals("Mensual", tasks.get(0).getDescription());
+        assertEquals(DUE, tasks.get(0).getDueDate());
+        assertTrue(tasks.get(0).isCompleted());
+        assertNull(tasks.get(1).getDescription());
+        assertFalse(tasks.get(1).isCompleted());
+
+        TaskManager manager = new TaskManager(store(dataFile));
+        manager.addTask("Después de cargar", "");
+        manager.close();
+        TaskCodec.Snapshot snapshot = TaskCodec.readSnapshot(dataFile, new DescriptionCache(1 << 20));
+        assertEquals(TaskCodec.VERSION, snapshot.header.version);
+        assertEquals(3, snapshot.tasks.size());
+        assertEquals("Mensual", snapshot.tasks.get(0).getDescription());
+        assertEquals(secondId, snapshot.tasks.get(1).getId());
+        if (snapshot.descriptions != null) {
+            snapshot.descriptions.close();
+        }
+    }
+
+    // Cabecera de 16 bytes y registros con la descripción incluida (sin id en la versión 1)
+    private static void writeOldVersion(File file, int version) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(TaskCodec.MAGIC);
+            out.writeInt(version);
+            out.writeInt(0);
+            out.writeInt(2);
+            writeOldRecord(out, version, 10, 1 | 2, "Informe", "Mensual");
+            writeOldRecord(out, version, 20, 0, "Revisar", null);
+        }
+    }
+
+    private static void writeOldRecord(DataOutputStream out, int version, long id, int flags, String title,
+            String description) throws IOException {
+        out.writeByte(flags);
+        if (version >= 2) {
+            out.writeLong(id);
+        }
+        out.writeInt((int) CREATED.toEpochDay());
+        if ((flags & 2) != 0) {
+            out.writeInt((int) DUE.toEpochDay());
+        }
+        TaskCodec.writeString(out, title);
+        TaskCodec.writeString(out, description);
+    }
+
+    private List<Task> load(File dataFile) {
+        JournaledTaskStore store = store(dataFile);
+        List<Task> tasks = store.load();
+        store.close();
+        return tasks;
+    }
+
+    private JournaledTaskStore store(File dataFile) {
+        return new JournaledTaskStore(dataFile.getPath(), dir.resolve("tasks.journal").toString());
+    }
+
+    // Instancia de la clase Task del paquete por defecto (ver Task.java en las pruebas)
+    private static Serializable legacyTask(String title, String description, LocalDate dueDate,
+            boolean completed, LocalDate createdDate) throws ReflectiveOperationException {
+        return (Serializable) Class.forName("Task")
+                .getConstructor(String.class, String.class, LocalDate.class, boolean.class, LocalDate.class)
+                .newInstance(title, description, dueDate, completed, createdDate);
+    }
+}
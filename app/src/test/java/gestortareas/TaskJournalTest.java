@@ -0,0 +1,137 @@
+package gestortareas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reproducción del diario: los registros se aplican sobre la instantánea y
+ * un final incompleto o dañado se descarta y se recorta del archivo.
+ */
+class TaskJournalTest {
+    private static final int GENERATION = 3;
+    private static final LocalDate CREATED = LocalDate.of(2025, 3, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayAppliesEveryRecord() throws IOException {
+        File file = dir.resolve("tasks.journal").toFile();
+        TaskJournal journal = new TaskJournal(file.getPath());
+        journal.reset(GENERATION);
+        journal.appendAdd(task(3, "Nueva", false));
+        journal.appendUpdate(task(1, "Primera cambiada", false));
+        journal.appendCompleted(2);
+        journal.appendRemove(3);
+        journal.appendAdd(task(4, "Otra", false));
+        journal.flush();
+
+        List<Task> tasks = snapshot();
+        TaskJournal replayed = new TaskJournal(file.getPath());
+        assertTrue(replayed.replay(tasks, GENERATION));
+        assertEquals(5, replayed.getRecordCount());
+        assertEquals(0, replayed.getDiscardedBytes());
+        assertEquals(List.of(1L, 2L, 4L), ids(tasks));
+        assertEquals("Primera cambiada", tasks.get(0).getTitle());
+        assertTrue(tasks.get(1).isCompleted());
+    }
+
+    @Test
+    void journalOfAnotherGenerationIsIgnored() throws IOException {
+        File file = dir.resolve("tasks.journal").toFile();
+        TaskJournal journal = new TaskJournal(file.getPath());
+        journal.reset(GENERATION - 1);
+        journal.appendRemove(1);
+        journal.flush();
+
+        List<Task> tasks = snapshot();
+        assertFalse(new TaskJournal(file.getPath()).replay(tasks, GENERATION));
+        assertEquals(List.of(1L, 2L), ids(tasks));
+    }
+
+    @Test
+    void tornRecordIsDiscardedAndTruncated() throws IOException {
+        // Alta a medias: el tipo de registro y parte de la tarea
+        checkDiscarded(new byte[] { 1, 0, 0 }, "registro incompleto");
+    }
+
+    @Test
+    void unknownRecordIsDiscardedAndTruncated() throws IOException {
+        checkDiscarded(new byte[] { 99, 1, 2, 3, 4, 5 }, "Registro de diario desconocido: 99");
+    }
+
+    @Test
+    void recordForMissingTaskIsDiscardedAndTruncated() throws IOException {
+        // Completar la tarea 12345, que no existe, y un byte suelto detrás
+        byte[] garbage = { 3, 0, 0, 0, 0, 0, 0, 0x30, 0x39, 3 };
+        checkDiscarded(garbage, "El diario hace referencia a una tarea inexistente: 12345");
+    }
+
+    // Dos registros válidos seguidos de basura: se aplican los válidos, el
+    // archivo vuelve a terminar en el último registro completo y lo que se
+    // escribe después se lee en la siguiente reproducción
+    private void checkDiscarded(byte[] garbage, String reason) throws IOException {
+        File file = dir.resolve("tasks.journal").toFile();
+        TaskJournal journal = new TaskJournal(file.getPath());
+        journal.reset(GENERATION);
+        journal.appendAdd(task(3, "Nueva", false));
+        journal.appendCompleted(1);
+        journal.flush();
+        long validLength = file.length();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+            out.write(garbage);
+        }
+
+        List<Task> tasks = snapshot();
+        TaskJournal replayed = new TaskJournal(file.getPath());
+        assertTrue(replayed.replay(tasks, GENERATION));
+        assertEquals(2, replayed.getRecordCount());
+        assertEquals(garbage.length, replayed.getDiscardedBytes());
+        assertEquals(reason, replayed.getDiscardReason());
+        assertEquals(validLength, file.length());
+        assertEquals(List.of(1L, 2L, 3L), ids(tasks));
+        assertTrue(tasks.get(0).isCompleted());
+
+        replayed.appendRemove(2);
+        replayed.flush();
+        List<Task> again = snapshot();
+        TaskJournal reopened = new TaskJournal(file.getPath());
+        assertTrue(reopened.replay(again, GENERATION));
+        assertEquals(0, reopened.getDiscardedBytes());
+        assertNull(reopened.getDiscardReason());
+        assertEquals(List.of(1L, 3L), ids(again));
+    }
+
+    private static List<Task> snapshot() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(task(1, "Primera", false));
+        tasks.add(task(2, "Segunda", false));
+        return tasks;
+    }
+
+    private static Task task(long id, String title, boolean completed) {
+        return new Task(id, title, "Descripción de " + title, null, CREATED, completed);
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
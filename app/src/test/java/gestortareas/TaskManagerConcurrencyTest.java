@@ -0,0 +1,131 @@
+package gestortareas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Varios hilos escribiendo y leyendo a la vez sobre el mismo TaskManager:
+ * ninguna alta, baja o cambio de estado se pierde, ni en memoria ni al
+ * volver a abrir el almacenamiento.
+ */
+class TaskManagerConcurrencyTest {
+    private static final int INITIAL_TASKS = 2000;
+    private static final int WRITERS = 4;
+    private static final int READERS = 2;
+    private static final int OPERATIONS = 3000;
+    // Tareas propias que cada escritor mantiene antes de quitar la más antigua
+    private static final int MAX_OWN_TASKS = 200;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentChangesAreNotLost() throws Exception {
+        TaskManager manager = open();
+        long[] ids = new long[INITIAL_TASKS];
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            ids[i] = manager.addTask("Tarea " + i, "Descripción " + i).getId();
+        }
+
+        LongAdder added = new LongAdder();
+        LongAdder removed = new LongAdder();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int seed = w;
+            writers.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                ArrayDeque<Long> own = new ArrayDeque<>();
+                start.await();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    own.addLast(manager.addTask("Escritor " + seed + " " + i, null).getId());
+                    added.increment();
+                    if (own.size() > MAX_OWN_TASKS && manager.removeTaskById(own.removeFirst())) {
+                        removed.increment();
+                    }
+                    long id = ids[random.nextInt(ids.length)];
+                    if (random.nextBoolean()) {
+                        manager.markTaskAsCompletedById(id);
+                    } else {
+                        manager.markTaskAsPendingById(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    // Lecturas a la vez que las escrituras: no deben bloquearse ni fallar
+                    TaskPage page = manager.query(TaskQuery.all().withStatus(TaskQuery.Status.PENDING).withPage(0, 20));
+                    assertTrue(page.getTasks().size() <= 20);
+                    assertTrue(manager.getTotalTasksCount() >= INITIAL_TASKS);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        long expected = INITIAL_TASKS + added.sum() - removed.sum();
+        int completed = checkConsistent(manager, expected);
+        manager.close();
+
+        TaskManager reopened = open();
+        assertEquals(completed, checkConsistent(reopened, expected));
+        reopened.close();
+    }
+
+    // Lista sin ids repetidos y contadores de acuerdo con ella; devuelve las completadas
+    private static int checkConsistent(TaskManager manager, long expected) {
+        List<Task> all = manager.getAllTasks();
+        Set<Long> seen = new HashSet<>();
+        int completed = 0;
+        for (Task task : all) {
+            assertTrue(seen.add(task.getId()), "Id repetido: " + task.getId());
+            if (task.isCompleted()) {
+                completed++;
+            }
+        }
+        assertEquals(expected, all.size());
+        assertEquals(expected, manager.getTotalTasksCount());
+        assertEquals(completed, manager.getCompletedTasksCount());
+        assertEquals(all.size() - completed, manager.getPendingTasksCount());
+        return completed;
+    }
+
+    private TaskManager open() {
+        return new TaskManager(new JournaledTaskStore(new File(dir.toFile(), "tasks.dat").getPath(),
+                new File(dir.toFile(), "tasks.journal").getPath(), 5));
+    }
+}
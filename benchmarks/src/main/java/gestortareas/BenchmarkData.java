@@ -0,0 +1,94 @@
+package gestortareas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Datos de prueba comunes a los benchmarks: tareas con títulos de un
+ * vocabulario pequeño (las búsquedas encuentran una fracción conocida),
+ * fechas límite repartidas alrededor de hoy y un tercio completadas.
+ */
+final class BenchmarkData {
+    static final String[] WORDS = { "informe", "reunión", "factura", "revisar", "llamar", "comprar", "enviar",
+            "preparar" };
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    // Agregar size tareas al gestor en un solo lote
+    static TaskManager populate(TaskManager manager, int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDate today = LocalDate.now();
+        manager.batch(batch -> {
+            for (int i = 0; i < size; i++) {
+                Task task = batch.add(title(i), "Descripción de la tarea " + i,
+                        random.nextInt(4) == 0 ? null : today.plusDays(random.nextInt(-60, 60)));
+                if (i % 3 == 0) {
+                    batch.complete(task.getId());
+                }
+            }
+        });
+        return manager;
+    }
+
+    static String title(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " #" + i;
+    }
+
+    // Identificadores de las tareas actuales, en orden aleatorio
+    static long[] shuffledIds(TaskManager manager, SplittableRandom random) {
+        List<Task> tasks = manager.getAllTasks();
+        long[] ids = new long[tasks.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tasks.get(i).getId();
+        }
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    // Tareas con textos repetidos (1000 títulos y 100 descripciones distintos),
+    // cada uno en su propia String como si se hubiera leído de un archivo
+    static List<Task> repetitiveTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(i + 1, new String(WORDS[i % WORDS.length] + " " + (i % 1000)),
+                    new String("Descripción habitual número " + (i % 100)), LocalDate.ofEpochDay(today.toEpochDay() + i % 30),
+                    LocalDate.ofEpochDay(today.toEpochDay()), i % 3 == 0));
+        }
+        return tasks;
+    }
+
+    // Lista de tareas sueltas (sin gestor) para el renderer
+    static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(i + 1, title(i), "Descripción de la tarea " + i + "\nsegunda línea",
+                    today.plusDays(i % 30 - 10), today, i % 3 == 0));
+        }
+        return tasks;
+    }
+
+    // Historial de tareas creadas a lo largo de los últimos meses, con ids en
+    // orden de creación (como las da el gestor)
+    static List<Task> history(int count, int months) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDate start = LocalDate.now().minusMonths(months);
+        long days = LocalDate.now().toEpochDay() - start.toEpochDay();
+        for (int i = 0; i < count; i++) {
+            LocalDate created = start.plusDays(days * i / count);
+            tasks.add(new Task(i + 1, title(i), "Descripción de la tarea " + i, created.plusDays(i % 30),
+                    created, i % 3 == 0));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,58 @@
+package gestortareas;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Punto de entrada de benchmarks.jar. Admite las mismas opciones que JMH
+ * (por ejemplo, un filtro de benchmarks o -p size=1000) y, si no se indica
+ * otro archivo con -rff, guarda los resultados de cada ejecución en
+ * jmh-results/aaaammdd-hhmmss.json para poder comparar entre versiones.
+ */
+public class BenchmarkRunner {
+    private static final String RESULTS_DIR = "jmh-results";
+
+    public static void main(String[] args) throws RunnerException {
+        CommandLineOptions options;
+        try {
+            options = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Opciones no válidas: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (options.shouldHelp()) {
+            try {
+                options.showHelp();
+            } catch (java.io.IOException e) {
+                System.err.println(e.getMessage());
+            }
+            return;
+        }
+        if (options.shouldList() || options.shouldListWithParams()) {
+            new Runner(options).list();
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResult().hasValue()) {
+            ResultFormatType format = options.getResultFormat().orElse(ResultFormatType.JSON);
+            File dir = new File(RESULTS_DIR);
+            dir.mkdirs();
+            String name = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            File resultFile = new File(dir, name + "." + format.name().toLowerCase(Locale.ROOT));
+            builder.resultFormat(format).result(resultFile.getPath());
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Varios hilos sobre el mismo TaskManager en memoria.
+ *
+ * readOneThread y readAllCores miden las mismas lecturas con un hilo y con
+ * todos los núcleos: con el StampedLock las lecturas no se esperan entre sí
+ * y el total debería crecer con los hilos. readWrite mezcla lectores y escritores (altas, bajas y
+ * cambios de estado) y, al final de cada iteración, comprueba que no se ha
+ * perdido ningún cambio: el número de tareas cuadra con las altas y bajas
+ * hechas, los contadores con la lista y no hay ids repetidos. Si algo no
+ * cuadra, la iteración falla.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ConcurrencyBenchmark {
+    // Tareas que cada escritor mantiene como mucho antes de quitar las más antiguas
+    private static final int MAX_OWN_TASKS = 1000;
+
+    @Param({ "100000" })
+    public int size;
+
+    private TaskManager manager;
+    // Tareas iniciales, que nadie elimina
+    private long[] ids;
+    private final TaskQuery pendingPage = TaskQuery.all().withStatus(TaskQuery.Status.PENDING).withPage(0, 20);
+    private final LongAdder added = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkData.populate(new TaskManager(new MemoryTaskStore()), size);
+        ids = BenchmarkData.shuffledIds(manager, new SplittableRandom(5));
+    }
+
+    // Tareas agregadas por un escritor, en orden de alta
+    @State(Scope.Thread)
+    public static class Writer {
+        final ArrayDeque<Long> own = new ArrayDeque<>();
+        int counter;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TaskPage readOneThread() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TaskPage readAllCores() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public TaskPage reader() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public Task writer(Writer writer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Task task = manager.addTask(BenchmarkData.title(writer.counter++), "Tarea concurrente", null);
+        writer.own.addLast(task.getId());
+        added.increment();
+        if (writer.own.size() > MAX_OWN_TASKS && manager.removeTaskById(writer.own.removeFirst())) {
+            removed.increment();
+        }
+        long id = ids[random.nextInt(ids.length)];
+        return random.nextBoolean() ? manager.markTaskAsCompletedById(id) : manager.markTaskAsPendingById(id);
+    }
+
+    // Con todos los hilos parados: cada alta y cada baja tiene que estar en la lista
+    @TearDown(Level.Iteration)
+    public void checkNoLostUpdates() {
+        long expected = size + added.sum() - removed.sum();
+        List<Task> all = manager.getAllTasks();
+        int completed = 0;
+        Set<Long> seen = new HashSet<>(all.size() * 2);
+        for (Task task : all) {
+            if (!seen.add(task.getId())) {
+                throw new IllegalStateException("Id repetido: " + task.getId());
+            }
+            if (task.isCompleted()) {
+                completed++;
+            }
+        }
+        if (all.size() != expected || manager.getTotalTasksCount() != expected) {
+            throw new IllegalStateException("Cambios perdidos: se esperaban " + expected + " tareas, hay "
+                    + all.size() + " en la lista y " + manager.getTotalTasksCount() + " en el contador");
+        }
+        if (manager.getCompletedTasksCount() != completed
+                || manager.getPendingTasksCount() != all.size() - completed) {
+            throw new IllegalStateException("Contadores descuadrados: " + manager.getCompletedTasksCount()
+                    + " completadas y " + manager.getPendingTasksCount() + " pendientes, la lista tiene "
+                    + completed + " completadas de " + all.size());
+        }
+    }
+
+    // Una página de pendientes desde una tarea al azar (con el bloqueo de lectura)
+    private TaskPage read() {
+        Task from = manager.getTaskById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        return manager.query(pendingPage.after(pendingPage.cursorAfter(from)));
+    }
+}
@@ -0,0 +1,47 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importar un CSV y un JSON Lines exportados por el propio gestor en un
+ * TaskManager vacío en memoria (análisis en paralelo y altas por lotes).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    @Param({ "csv", "jsonl" })
+    public String format;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("tareas-bench", "." + format).toFile();
+        TaskManager source = BenchmarkData.populate(new TaskManager(new MemoryTaskStore()), size);
+        source.exportTasks(file.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public TaskManager importTasks() throws IOException {
+        TaskManager manager = new TaskManager(new MemoryTaskStore());
+        manager.importTasks(file.getPath());
+        return manager;
+    }
+}
@@ -0,0 +1,54 @@
+package gestortareas;
+
+import java.lang.ref.Reference;
+import java.util.List;
+
+/**
+ * Memoria por tarea: heap usado antes y después de crear N tareas, tras
+ * forzar la recolección. Mide las tareas sueltas (como las deja la carga de
+ * un archivo), con textos únicos y con textos repetidos, y el gestor completo
+ * con sus índices. Uso:
+ *
+ *   java -Xmx4g -cp benchmarks/target/benchmarks.jar gestortareas.MemoryFootprint [N]
+ */
+public final class MemoryFootprint {
+    private MemoryFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        List<Task> tasks = BenchmarkData.tasks(count);
+        long after = usedHeap();
+        print("Tareas (lista de " + count + ")", after - before, count);
+        Reference.reachabilityFence(tasks);
+        tasks = null;
+
+        before = usedHeap();
+        tasks = BenchmarkData.repetitiveTasks(count);
+        after = usedHeap();
+        print("Tareas con textos repetidos", after - before, count);
+        Reference.reachabilityFence(tasks);
+        tasks = null;
+
+        before = usedHeap();
+        TaskManager manager = BenchmarkData.populate(new TaskManager(new MemoryTaskStore()), count);
+        after = usedHeap();
+        print("TaskManager con " + count + " tareas", after - before, count);
+        Reference.reachabilityFence(manager);
+    }
+
+    private static void print(String label, long bytes, int count) {
+        System.out.printf("%s: %.1f MB, %.1f bytes por tarea%n", label, bytes / 1e6, bytes / (double) count);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
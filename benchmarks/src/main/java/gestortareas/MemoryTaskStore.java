@@ -0,0 +1,42 @@
+package gestortareas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacenamiento vacío que no escribe nada, para medir el gestor sin disco.
+ */
+final class MemoryTaskStore implements TaskStore {
+    @Override
+    public List<Task> load() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+    }
+
+    @Override
+    public void taskStatusChanged(Task task) {
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+    }
+
+    @Override
+    public void completedTasksCleared() {
+    }
+
+    @Override
+    public void save() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
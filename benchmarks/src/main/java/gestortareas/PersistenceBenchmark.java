@@ -0,0 +1,66 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Guardar, cargar y exportar con el almacenamiento por defecto (instantánea
+ * y diario, en modo síncrono) sobre un directorio temporal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private File directory;
+    private String dataFile;
+    private String journalFile;
+    private String exportFile;
+    private TaskManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tareas-bench").toFile();
+        dataFile = new File(directory, "tasks.dat").getPath();
+        journalFile = new File(directory, "tasks.journal").getPath();
+        exportFile = new File(directory, "tareas.txt").getPath();
+        manager = BenchmarkData.populate(new TaskManager(new JournaledTaskStore(dataFile, journalFile, 0)), size);
+        manager.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.close();
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    // Instantánea completa de todas las tareas
+    @Benchmark
+    public void saveTasks() {
+        manager.flush();
+    }
+
+    @Benchmark
+    public TaskManager loadTasks() {
+        return new TaskManager(new JournaledTaskStore(dataFile, journalFile, 0));
+    }
+
+    @Benchmark
+    public void exportTasksToText() throws IOException {
+        manager.exportTasksToText(exportFile);
+    }
+}
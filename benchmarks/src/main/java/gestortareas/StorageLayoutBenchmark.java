@@ -0,0 +1,76 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cargar y guardar un cambio con el almacenamiento monolítico (tasks.dat)
+ * y con el particionado por mes de creación (PartitionedTaskStore), sobre
+ * tareas creadas a lo largo de tres años.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class StorageLayoutBenchmark {
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    @Param({ "journal", "partitioned" })
+    public String storage;
+
+    private File directory;
+    private TaskManager manager;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tareas-bench").toFile();
+        TaskCodec.writeSnapshot(new File(directory, "tasks.dat"), 1, BenchmarkData.history(size, 36));
+        // La primera apertura del particionado importa tasks.dat
+        openManager().close();
+        manager = openManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.close();
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private TaskManager openManager() {
+        String dataFile = new File(directory, "tasks.dat").getPath();
+        String journalFile = new File(directory, "tasks.journal").getPath();
+        if (storage.equals("partitioned")) {
+            return new TaskManager(new PartitionedTaskStore(new File(directory, "tasks.parts").getPath(),
+                    dataFile, journalFile));
+        }
+        return new TaskManager(new JournaledTaskStore(dataFile, journalFile, 0));
+    }
+
+    @Benchmark
+    public TaskManager loadTasks() {
+        return openManager();
+    }
+
+    // Cambiar una tarea y guardar: el monolítico reescribe todo, el particionado un mes
+    @Benchmark
+    public void saveAfterOneChange() {
+        long id = nextId++ % size + 1;
+        if (manager.markTaskAsCompletedById(id) != null) {
+            manager.markTaskAsPendingById(id);
+        }
+        manager.flush();
+    }
+}
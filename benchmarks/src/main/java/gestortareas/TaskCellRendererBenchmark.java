@@ -0,0 +1,70 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.CellRendererPane;
+import javax.swing.JList;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pintado de una fila de la lista con TaskCellRenderer, sin pantalla
+ * (java.awt.headless) sobre una imagen en memoria, como lo hace la JList a
+ * través de un CellRendererPane. Con 16 tareas distintas todas las filas
+ * están en la caché del renderer; con 4096 casi ninguna.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TaskCellRendererBenchmark {
+    private static final int WIDTH = 500;
+
+    @Param({ "16", "4096" })
+    public int distinctTasks;
+
+    private JList<Task> list;
+    private TaskCellRenderer renderer;
+    private CellRendererPane rendererPane;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private Task[] tasks;
+    private int height;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> all = BenchmarkData.tasks(distinctTasks);
+        tasks = all.toArray(new Task[0]);
+        list = new JList<>();
+        list.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 13));
+        renderer = new TaskCellRenderer();
+        rendererPane = new CellRendererPane();
+        Dimension size = renderer.getListCellRendererComponent(list, tasks[0], 0, false, false).getPreferredSize();
+        height = size.height;
+        image = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintCell() {
+        int index = cursor;
+        cursor = cursor + 1 == tasks.length ? 0 : cursor + 1;
+        Component component = renderer.getListCellRendererComponent(list, tasks[index], index, index % 5 == 0,
+                false);
+        rendererPane.paintComponent(graphics, component, list, 0, 0, WIDTH, height, true);
+        return image;
+    }
+}
@@ -0,0 +1,129 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas y modificaciones del TaskManager en memoria (sin disco) con 1k,
+ * 100k y 1M tareas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class TaskManagerBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private TaskManager manager;
+    private long[] ids;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkData.populate(new TaskManager(new MemoryTaskStore()), size);
+        ids = BenchmarkData.shuffledIds(manager, new SplittableRandom(7));
+        // Los índices de títulos y de palabras se construyen en la primera búsqueda
+        manager.searchTasksByTitle("informe");
+        manager.searchTasks(TextSearch.of("informe"));
+    }
+
+    private long nextId() {
+        long id = ids[cursor];
+        cursor = cursor + 1 == ids.length ? 0 : cursor + 1;
+        return id;
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        long id = nextId();
+        Task task = manager.getTaskById(id);
+        return manager.updateTaskById(id, task.getTitle(), "Descripción modificada", task.getDueDate());
+    }
+
+    @Benchmark
+    public Task updateTaskTitle() {
+        long id = nextId();
+        Task task = manager.getTaskById(id);
+        String title = task.getTitle().startsWith("*") ? task.getTitle().substring(1) : "*" + task.getTitle();
+        return manager.updateTaskById(id, title, task.getDescription(), task.getDueDate());
+    }
+
+    @Benchmark
+    public Task toggleCompleted() {
+        long id = nextId();
+        Task task = manager.getTaskById(id);
+        return task.isCompleted() ? manager.markTaskAsPendingById(id) : manager.markTaskAsCompletedById(id);
+    }
+
+    // Palabra del vocabulario: coincide con una de cada ocho tareas
+    @Benchmark
+    public List<Task> searchCommonWord() {
+        return manager.searchTasksByTitle("factura");
+    }
+
+    // Número de tarea: pocas coincidencias
+    @Benchmark
+    public List<Task> searchRare() {
+        return manager.searchTasksByTitle("#4242");
+    }
+
+    // Menos de tres caracteres: recorre todos los títulos
+    @Benchmark
+    public List<Task> searchShort() {
+        return manager.searchTasksByTitle("#9");
+    }
+
+    // Relevancia: dos palabras del vocabulario, las 20 mejores de una de cada cuatro tareas
+    @Benchmark
+    public List<Task> rankedSearchCommonWords() {
+        return manager.searchTasks(TextSearch.of("informe reunión"));
+    }
+
+    // Relevancia: número de tarea, pocas coincidencias
+    @Benchmark
+    public List<Task> rankedSearchRare() {
+        return manager.searchTasks(TextSearch.of("4242"));
+    }
+
+    // Relevancia con prefijos y erratas
+    @Benchmark
+    public List<Task> rankedSearchFuzzy() {
+        return manager.searchTasks(TextSearch.of("reunoin fact").withPrefixes(true).withTypoTolerance(true));
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return manager.getAllTasks();
+    }
+
+    @Benchmark
+    public List<Task> getPendingTasks() {
+        return manager.getPendingTasks();
+    }
+
+    @Benchmark
+    public List<Task> getCompletedTasks() {
+        return manager.getCompletedTasks();
+    }
+
+    @Benchmark
+    public List<Task> getOverdueTasks() {
+        return manager.getOverdueTasks();
+    }
+
+    @Benchmark
+    public List<Task> getTasksDueWithin() {
+        return manager.getTasksDueWithin(7);
+    }
+
+    @Benchmark
+    public int getOverdueTasksCount() {
+        return manager.getOverdueTasksCount();
+    }
+}
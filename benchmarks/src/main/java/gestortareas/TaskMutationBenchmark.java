@@ -0,0 +1,82 @@
+package gestortareas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Altas y bajas en el TaskManager en memoria. Cada iteración hace un lote
+ * de OPERATIONS llamadas y después se devuelve el gestor a su tamaño inicial,
+ * para que el tamaño medido sea siempre el del parámetro.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = TaskMutationBenchmark.OPERATIONS)
+@Measurement(iterations = 20, batchSize = TaskMutationBenchmark.OPERATIONS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class TaskMutationBenchmark {
+    static final int OPERATIONS = 1000;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private TaskManager manager;
+    private final SplittableRandom random = new SplittableRandom(11);
+    private final long[] iterationIds = new long[OPERATIONS];
+    private int cursor;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkData.populate(new TaskManager(new MemoryTaskStore()), size);
+        manager.searchTasksByTitle("informe");
+    }
+
+    // Tareas que se eliminarán en esta iteración (de posiciones al azar)
+    @Setup(Level.Iteration)
+    public void pickIds() {
+        int total = manager.getTotalTasksCount();
+        for (int i = 0; i < OPERATIONS; i++) {
+            iterationIds[i] = manager.getTask(random.nextInt(total)).getId();
+        }
+        cursor = 0;
+    }
+
+    // Volver al tamaño inicial: quitar las tareas agregadas o reponer las eliminadas
+    @TearDown(Level.Iteration)
+    public void restoreSize() {
+        int difference = manager.getTotalTasksCount() - size;
+        if (difference > 0) {
+            long[] extra = new long[difference];
+            List<Task> all = manager.getAllTasks();
+            for (int i = 0; i < difference; i++) {
+                extra[i] = all.get(all.size() - 1 - i).getId();
+            }
+            manager.batch(batch -> {
+                for (long id : extra) {
+                    batch.remove(id);
+                }
+            });
+        } else if (difference < 0) {
+            manager.batch(batch -> {
+                for (int i = difference; i < 0; i++) {
+                    batch.add(BenchmarkData.title(counter++), "Repuesta", null);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public Task addTask() {
+        return manager.addTask(BenchmarkData.title(counter++), "Nueva tarea", null);
+    }
+
+    @Benchmark
+    public boolean removeTask() {
+        // Una posición puede repetirse en el lote; la segunda vez no hay nada que quitar
+        return manager.removeTaskById(iterationIds[cursor++]);
+    }
+}